@@ -1,16 +1,22 @@
 package com.app.config;
 
-import io.jsonwebtoken.Jwts;
+import com.app.security.crypto.BCryptStrengthCalibrator;
+import com.app.security.crypto.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.Map;
 
 /**
  * Configuration class for application-level beans.
- * Provides beans for password encoding and JWT secret key generation.
+ * Provides beans for password encoding.
  */
 @Configuration
 public class AppConfig {
@@ -18,28 +24,35 @@ public class AppConfig {
     /**
      * Creates a {@link PasswordEncoder} bean.
      * <p>
-     * This method provides a password encoder that supports multiple encoding algorithms.
-     * The encoder will automatically delegate to the appropriate encoding algorithm based on the prefix of the stored password.
+     * This method provides a delegating password encoder that stores hashes with the {@code {bcrypt}} prefix.
+     * The BCrypt strength is calibrated at startup to the configured per-hash latency budget, so stored hashes
+     * with a lower strength are reported by {@link PasswordEncoder#upgradeEncoding(String)} and re-hashed on login.
+     * Hashing runs on a dedicated, bounded pool so a burst of logins cannot starve the request threads.
      * </p>
      *
-     * @return a delegating {@link PasswordEncoder}.
+     * @param meterRegistry the registry the hashing statistics are published to
+     * @param poolSize      the number of threads hashing passwords
+     * @param queueCapacity the number of hashing operations allowed to wait for a free thread
+     * @param targetLatency the per-hash latency budget in milliseconds
+     * @param minStrength   the lowest BCrypt strength allowed
+     * @param maxStrength   the highest BCrypt strength allowed
+     * @return a delegating {@link PasswordEncoder} running on the hashing pool.
      */
-    @Bean
-    PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
-    }
+    @Bean(destroyMethod = "shutdown")
+    BoundedPasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${password.hashing.pool-size}") int poolSize,
+            @Value("${password.hashing.queue-capacity}") int queueCapacity,
+            @Value("${password.hashing.bcrypt.target-latency-ms}") long targetLatency,
+            @Value("${password.hashing.bcrypt.min-strength}") int minStrength,
+            @Value("${password.hashing.bcrypt.max-strength}") int maxStrength) {
 
-    /**
-     * Creates a {@link SecretKey} bean for signing JSON Web Tokens (JWTs).
-     * <p>
-     * The key is generated using the HS512 signing algorithm provided by the {@link io.jsonwebtoken.Jwts} library.
-     * This key is used to ensure the integrity and authenticity of JWTs.
-     * </p>
-     *
-     * @return a {@link SecretKey} for JWT signing.
-     */
-    @Bean
-    SecretKey secretKey() {
-        return Jwts.SIG.HS512.key().build();
+        var strength = BCryptStrengthCalibrator
+                .calibrate(Duration.ofMillis(targetLatency), minStrength, maxStrength);
+        Gauge.builder("password.hashing.bcrypt.strength", () -> strength).register(meterRegistry);
+
+        var delegating = new DelegatingPasswordEncoder(
+                "bcrypt", Map.of("bcrypt", new BCryptPasswordEncoder(strength)));
+        return new BoundedPasswordEncoder(delegating, poolSize, queueCapacity, meterRegistry);
     }
 }
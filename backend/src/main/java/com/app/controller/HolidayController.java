@@ -1,10 +1,15 @@
 package com.app.controller;
 
+import com.app.controller.dto.BatchItemResultDto;
+import com.app.controller.dto.holiday.BatchCreateHolidayDto;
+import com.app.controller.dto.holiday.BatchStatusChangeDto;
 import com.app.controller.dto.holiday.CreateHolidayDto;
 import com.app.controller.dto.holiday.HolidayDto;
 import com.app.controller.dto.holiday.HolidaySpecificationDto;
 import com.app.controller.dto.ResponseDto;
 import com.app.model.Status;
+import com.app.security.dto.AuthenticatedUser;
+import com.app.service.HolidayBalanceService;
 import com.app.service.HolidayService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -22,20 +27,34 @@ import java.util.List;
 public class HolidayController {
 
     private final HolidayService holidayService;
+    private final HolidayBalanceService holidayBalanceService;
 
     /**
      * Creates a new holiday request.
      *
-     * @param createHolidayDto DTO with holiday details.
-     * @param token            Access token from cookie for authentication.
+     * @param createHolidayDto  DTO with holiday details.
+     * @param authenticatedUser User authenticated by the access token.
      * @return ID of the created holiday.
      */
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ResponseDto<Long> createHoliday(
             @RequestBody CreateHolidayDto createHolidayDto,
-            @CookieValue("AccessToken") String token) {
-        return new ResponseDto<>(holidayService.createHoliday(createHolidayDto, token));
+            AuthenticatedUser authenticatedUser) {
+        return new ResponseDto<>(holidayService.createHoliday(createHolidayDto, authenticatedUser.id()));
+    }
+
+    /**
+     * Creates many holiday requests, for one or more users, at once.
+     *
+     * @param batchCreateHolidayDtos DTOs with the user and the details of each holiday.
+     * @return The result of every item, in request order.
+     */
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseDto<List<BatchItemResultDto>> createHolidays(
+            @RequestBody List<BatchCreateHolidayDto> batchCreateHolidayDtos) {
+        return new ResponseDto<>(holidayService.createHolidays(batchCreateHolidayDtos));
     }
 
     /**
@@ -44,18 +63,40 @@ public class HolidayController {
      * Note: @Param is intended for repository query parameters,
      * better to use @RequestParam for controller method parameters.
      *
-     * @param token     Access token from cookie for authentication.
-     * @param startDate Optional start date filter.
-     * @param endDate   Optional end date filter.
-     * @return List of holidays matching the date criteria.
+     * @param authenticatedUser User authenticated by the access token.
+     * @param startDate         Optional start date filter.
+     * @param endDate           Optional end date filter.
+     * @param cursor            Optional cursor returned with the previous page.
+     * @param limit             Optional maximum number of holidays in the page.
+     * @return Page of holidays matching the date criteria.
      */
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
     public ResponseDto<List<HolidayDto>> getHolidays(
-            @CookieValue("AccessToken") String token,
+            AuthenticatedUser authenticatedUser,
             @RequestParam(required = false) LocalDateTime startDate,
-            @RequestParam(required = false) LocalDateTime endDate) {
-        return new ResponseDto<>(holidayService.getHolidaysByDate(token, startDate, endDate));
+            @RequestParam(required = false) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseDto.of(holidayService.getHolidaysByDate(
+                authenticatedUser.id(), startDate, endDate, cursor, limit));
+    }
+
+    /**
+     * Retrieves the holiday balance of the authenticated user, currently or at a point in time.
+     *
+     * @param authenticatedUser User authenticated by the access token.
+     * @param asOf              Optional point in time; the current balance is returned if absent.
+     * @return The balance in holiday hours.
+     */
+    @GetMapping("/balance")
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseDto<Long> getBalance(
+            AuthenticatedUser authenticatedUser,
+            @RequestParam(required = false) LocalDateTime asOf) {
+        return new ResponseDto<>(asOf == null
+                ? holidayBalanceService.balance(authenticatedUser.id())
+                : holidayBalanceService.balanceAsOf(authenticatedUser.id(), asOf));
     }
 
     /**
@@ -71,16 +112,29 @@ public class HolidayController {
         return new ResponseDto<>(holidayService.changeStatus(holidayId, status));
     }
 
+    /**
+     * Changes the status of many holidays at once.
+     *
+     * @param batchStatusChangeDto DTO with the IDs of the holidays and the status to apply.
+     * @return The result of every ID, in request order.
+     */
+    @PatchMapping("/status/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseDto<List<BatchItemResultDto>> changeStatuses(
+            @RequestBody BatchStatusChangeDto batchStatusChangeDto) {
+        return new ResponseDto<>(holidayService.changeStatuses(batchStatusChangeDto));
+    }
+
     /**
      * Retrieves holidays filtered by complex criteria.
      *
-     * @param holidaySpecificationDto DTO specifying filter criteria.
-     * @return List of holidays matching the filter criteria.
+     * @param holidaySpecificationDto DTO specifying filter criteria and the page to read.
+     * @return Page of holidays matching the filter criteria.
      */
     @PostMapping("/filter")
     @ResponseStatus(HttpStatus.OK)
     public ResponseDto<List<HolidayDto>> getHolidays(
             @RequestBody HolidaySpecificationDto holidaySpecificationDto) {
-        return new ResponseDto<>(holidayService.getHolidays(holidaySpecificationDto));
+        return ResponseDto.of(holidayService.getHolidays(holidaySpecificationDto));
     }
 }
@@ -3,10 +3,12 @@ package com.app.controller;
 import com.app.controller.dto.*;
 import com.app.controller.dto.user.*;
 import com.app.model.Role;
+import com.app.security.dto.AuthenticatedUser;
 import com.app.security.dto.RefreshTokenDto;
 import com.app.security.dto.TokensDto;
 import com.app.security.service.TokenService;
 import com.app.service.UserService;
+import com.app.service.WorkScheduleService;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -26,6 +28,7 @@ public class UserController {
 
     private final UserService userService;
     private final TokenService tokenService;
+    private final WorkScheduleService workScheduleService;
 
     /**
      * Creates a new user.
@@ -115,15 +118,22 @@ public class UserController {
     }
 
     /**
-     * Logs out the user by invalidating authentication cookies.
+     * Logs out the user by revoking the tokens and invalidating authentication cookies.
      *
-     * @param token    Access token from the cookie.
-     * @param response HTTP response to clear cookies.
+     * @param token        Access token from the cookie.
+     * @param refreshToken Refresh token from the cookie, if present.
+     * @param response     HTTP response to clear cookies.
      * @return ResponseDto containing logout confirmation message.
      */
     @GetMapping("/in/disable")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseDto<LogoutDto> disable(@CookieValue("AccessToken") String token, HttpServletResponse response) {
+    public ResponseDto<LogoutDto> disable(
+            @CookieValue("AccessToken") String token,
+            @CookieValue(value = "RefreshToken", required = false) String refreshToken,
+            HttpServletResponse response) {
+
+        tokenService.revoke(token);
+        tokenService.revoke(refreshToken);
 
         var accessTokenCookie = new Cookie("AccessToken", null);
         accessTokenCookie.setHttpOnly(true);
@@ -147,66 +157,66 @@ public class UserController {
     /**
      * Retrieves information about the currently logged-in user.
      *
-     * @param token Access token from the cookie.
+     * @param authenticatedUser User authenticated by the access token.
      * @return ResponseDto containing the user data.
      */
     @GetMapping("/in/user")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseDto<UserDto> getActualLoginUser(@CookieValue("AccessToken") String token) {
-        return new ResponseDto<>(userService.getActualLoginUser(token));
+    public ResponseDto<UserDto> getActualLoginUser(AuthenticatedUser authenticatedUser) {
+        return new ResponseDto<>(userService.getActualLoginUser(authenticatedUser.id()));
     }
 
     /**
      * Retrieves the role of the currently logged-in user.
      *
-     * @param token Access token from the cookie.
+     * @param authenticatedUser User authenticated by the access token.
      * @return ResponseDto containing the user's role.
      */
     @GetMapping("/in/role")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseDto<Role> getActualLoginRole(@CookieValue("AccessToken") String token) {
-        return new ResponseDto<>(userService.getActualLoginRole(token));
+    public ResponseDto<Role> getActualLoginRole(AuthenticatedUser authenticatedUser) {
+        return new ResponseDto<>(authenticatedUser.role());
     }
 
     /**
      * Changes the password of the currently logged-in user.
      *
      * @param changePasswordDto DTO containing old and new passwords.
-     * @param token             Access token from the cookie.
+     * @param authenticatedUser User authenticated by the access token.
      * @return ResponseDto containing the user ID whose password was changed.
      */
     @PatchMapping("/in/password")
     @ResponseStatus(HttpStatus.OK)
     public ResponseDto<Long> changePassword(
             @RequestBody ChangePasswordDto changePasswordDto,
-            @CookieValue("AccessToken") String token) {
-        return new ResponseDto<>(userService.changePassword(changePasswordDto, token));
+            AuthenticatedUser authenticatedUser) {
+        return new ResponseDto<>(userService.changePassword(changePasswordDto, authenticatedUser.id()));
     }
 
     /**
      * Changes the email address of the currently logged-in user.
      *
-     * @param newEmailDto DTO containing the new email.
-     * @param token       Access token from the cookie.
+     * @param newEmailDto       DTO containing the new email.
+     * @param authenticatedUser User authenticated by the access token.
      * @return ResponseDto containing the user ID whose email was changed.
      */
     @PatchMapping("/in/email")
     @ResponseStatus(HttpStatus.OK)
     public ResponseDto<Long> changeEmail(
-            @RequestBody NewEmailDto newEmailDto, @CookieValue("AccessToken") String token) {
-        return new ResponseDto<>(userService.changeEmail(newEmailDto, token));
+            @RequestBody NewEmailDto newEmailDto, AuthenticatedUser authenticatedUser) {
+        return new ResponseDto<>(userService.changeEmail(newEmailDto, authenticatedUser.id()));
     }
 
     /**
      * Deletes the currently logged-in user.
      *
-     * @param token Access token from the cookie.
+     * @param authenticatedUser User authenticated by the access token.
      * @return ResponseDto containing the ID of the deleted user.
      */
     @DeleteMapping("/in")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseDto<Long> deleteUser(@CookieValue("AccessToken") String token) {
-        return new ResponseDto<>(userService.deleteUser(token));
+    public ResponseDto<Long> deleteUser(AuthenticatedUser authenticatedUser) {
+        return new ResponseDto<>(userService.deleteUser(authenticatedUser.id()));
     }
 
     /**
@@ -222,28 +232,40 @@ public class UserController {
     }
 
     /**
-     * Retrieves users filtered by criteria.
+     * Retrieves one sorted page of users filtered by criteria.
      *
-     * @param userSpecificationDto DTO containing filtering criteria.
-     * @return ResponseDto containing a list of users matching the criteria.
+     * @param userSpecificationDto DTO containing filtering criteria, the sort and the page to read.
+     * @return ResponseDto containing a page of users matching the criteria.
      */
     @PatchMapping("/filter")
     @ResponseStatus(HttpStatus.OK)
     public ResponseDto<List<UserDto>> getUsers(@RequestBody UserSpecificationDto userSpecificationDto) {
-        return new ResponseDto<>(userService.getUsers(userSpecificationDto));
+        return ResponseDto.of(userService.getUsers(userSpecificationDto));
+    }
+
+    /**
+     * Retrieves one sorted page of users filtered by criteria given as query parameters.
+     *
+     * @param userSpecificationDto DTO containing filtering criteria, the sort and the page to read.
+     * @return ResponseDto containing a page of users matching the criteria.
+     */
+    @GetMapping("/filter")
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseDto<List<UserDto>> findUsers(@ModelAttribute UserSpecificationDto userSpecificationDto) {
+        return ResponseDto.of(userService.getUsers(userSpecificationDto));
     }
 
     /**
      * Deletes a user by their ID (admin operation).
      *
-     * @param userId ID of the user to delete.
-     * @param token  Authorization token from the request header.
+     * @param userId            ID of the user to delete.
+     * @param authenticatedUser User authenticated by the access token.
      * @return ResponseDto containing the ID of the deleted user.
      */
     @DeleteMapping()
     @ResponseStatus(HttpStatus.OK)
-    public ResponseDto<Long> deleteUser(@RequestParam Long userId, @RequestHeader("Authorization") String token) {
-        return new ResponseDto<>(userService.deleteUser(userId, token));
+    public ResponseDto<Long> deleteUser(@RequestParam Long userId, AuthenticatedUser authenticatedUser) {
+        return new ResponseDto<>(userService.deleteUser(userId, authenticatedUser.id()));
     }
 
     /**
@@ -257,4 +279,16 @@ public class UserController {
     public ResponseDto<Long> updateUser(@RequestBody UpdateUserDto updateUserDto) {
         return new ResponseDto<>(userService.updateUser(updateUserDto));
     }
+
+    /**
+     * Sets the weekly working hours of a user from a given date on.
+     *
+     * @param workScheduleDto DTO containing the user, the effective date and the hours per day of the week.
+     * @return ResponseDto containing the ID of the saved schedule.
+     */
+    @PatchMapping("/schedule")
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseDto<Long> setSchedule(@RequestBody WorkScheduleDto workScheduleDto) {
+        return new ResponseDto<>(workScheduleService.setSchedule(workScheduleDto));
+    }
 }
@@ -0,0 +1,33 @@
+package com.app.controller.dto;
+
+/**
+ * Result of a single item of a bulk request.
+ *
+ * @param index the position of the item in the request
+ * @param id    the ID of the created or updated entity, or null if the item failed
+ * @param error the reason the item failed, or null if it succeeded
+ */
+public record BatchItemResultDto(int index, Long id, String error) {
+
+    /**
+     * Constructs the result of a successful item.
+     *
+     * @param index the position of the item in the request
+     * @param id    the ID of the created or updated entity
+     * @return the result of the item
+     */
+    public static BatchItemResultDto success(int index, Long id) {
+        return new BatchItemResultDto(index, id, null);
+    }
+
+    /**
+     * Constructs the result of a failed item.
+     *
+     * @param index the position of the item in the request
+     * @param error the reason the item failed
+     * @return the result of the item
+     */
+    public static BatchItemResultDto failure(int index, String error) {
+        return new BatchItemResultDto(index, null, error);
+    }
+}
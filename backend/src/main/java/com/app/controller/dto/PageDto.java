@@ -0,0 +1,14 @@
+package com.app.controller.dto;
+
+import java.util.List;
+
+/**
+ * One page of a result read with keyset pagination.
+ *
+ * @param <T>        the type of the items
+ * @param items      the items of the page
+ * @param nextCursor the cursor of the next page, or null if this is the last page
+ * @param total      the number of items matching the query, or null if it was not requested
+ */
+public record PageDto<T>(List<T> items, String nextCursor, Long total) {
+}
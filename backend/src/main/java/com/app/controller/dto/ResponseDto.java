@@ -1,5 +1,9 @@
 package com.app.controller.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
 /**
  * Generic response wrapper DTO to encapsulate either the successful data
  * or an error message.
@@ -7,8 +11,24 @@ package com.app.controller.dto;
  * @param <T> the type of the data returned in the response
  * @param data the successful response data, or null if there is an error
  * @param error the error message, or null if the request was successful
+ * @param nextCursor the cursor of the next page of a paged response, omitted if there is none
+ * @param total the number of items matching a paged request, omitted if it was not requested
  */
-public record ResponseDto<T>(T data, String error) {
+public record ResponseDto<T>(
+        T data,
+        String error,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String nextCursor,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Long total) {
+
+    /**
+     * Constructs a response containing data or an error message.
+     *
+     * @param data the response data
+     * @param error the error message
+     */
+    public ResponseDto(T data, String error) {
+        this(data, error, null, null);
+    }
 
     /**
      * Constructs a successful response containing data.
@@ -27,4 +47,15 @@ public record ResponseDto<T>(T data, String error) {
     public ResponseDto(String error) {
         this(null, error);
     }
+
+    /**
+     * Constructs a successful response containing one page of items.
+     *
+     * @param page the page of items
+     * @param <E> the type of the items
+     * @return a response with the items as data and the paging information
+     */
+    public static <E> ResponseDto<List<E>> of(PageDto<E> page) {
+        return new ResponseDto<>(page.items(), null, page.nextCursor(), page.total());
+    }
 }
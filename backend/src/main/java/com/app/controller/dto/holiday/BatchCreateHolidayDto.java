@@ -0,0 +1,22 @@
+package com.app.controller.dto.holiday;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) representing one holiday of a bulk creation request.
+ *
+ * @param userId    the ID of the user the holiday is created for
+ * @param startDate the start date and time of the holiday
+ * @param endDate   the end date and time of the holiday
+ */
+public record BatchCreateHolidayDto(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
+
+    /**
+     * Converts this DTO into the {@link CreateHolidayDto} used to create a single holiday.
+     *
+     * @return the holiday details without the user
+     */
+    public CreateHolidayDto toCreateHolidayDto() {
+        return new CreateHolidayDto(startDate, endDate);
+    }
+}
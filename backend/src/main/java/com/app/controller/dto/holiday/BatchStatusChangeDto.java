@@ -0,0 +1,14 @@
+package com.app.controller.dto.holiday;
+
+import com.app.model.Status;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) used to change the status of many holiday requests at once.
+ *
+ * @param holidayIds the IDs of the holiday requests to change
+ * @param status     the status to set on all of them
+ */
+public record BatchStatusChangeDto(List<Long> holidayIds, Status status) {
+}
@@ -0,0 +1,14 @@
+package com.app.controller.dto.holiday;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) representing the date range occupied by a holiday.
+ * Used to build the in-memory overlap index without loading whole holiday entities.
+ *
+ * @param id        the unique identifier of the holiday request
+ * @param startDate the start date and time of the holiday
+ * @param endDate   the end date and time of the holiday
+ */
+public record HolidayIntervalDto(Long id, LocalDateTime startDate, LocalDateTime endDate) {
+}
@@ -1,6 +1,7 @@
 package com.app.controller.dto.holiday;
 
 import com.app.model.Status;
+import com.app.persistence.specification.model.HolidayCursor;
 import com.app.persistence.specification.model.HolidaySpecification;
 
 import java.time.LocalDateTime;
@@ -14,21 +15,28 @@ import java.time.LocalDateTime;
  * @param startDate the start date and time of the holiday (optional)
  * @param endDate   the end date and time of the holiday (optional)
  * @param status    the status of the holiday request (optional)
+ * @param cursor    the cursor returned with the previous page (optional)
+ * @param limit     the maximum number of holidays in the page (optional)
+ * @param withTotal whether to count all matching holidays (optional)
  */
 public record HolidaySpecificationDto(
         Long id,
         Long userId,
         LocalDateTime startDate,
         LocalDateTime endDate,
-        Status status
+        Status status,
+        String cursor,
+        Integer limit,
+        Boolean withTotal
 ) {
     /**
      * Converts this DTO into a {@link HolidaySpecification}, which can be
      * used for dynamic querying of holiday requests based on provided criteria.
      *
      * @return a new {@link HolidaySpecification} instance based on this DTO
+     * @throws IllegalArgumentException if the cursor is malformed
      */
     public HolidaySpecification toHolidaySpecification() {
-        return new HolidaySpecification(id, userId, startDate, endDate, status);
+        return new HolidaySpecification(id, userId, startDate, endDate, status, HolidayCursor.decode(cursor));
     }
 }
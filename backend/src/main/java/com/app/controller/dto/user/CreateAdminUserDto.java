@@ -1,7 +1,5 @@
 package com.app.controller.dto.user;
 
-import com.app.model.Role;
-import com.app.persistence.entity.UserEntity;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -10,7 +8,7 @@ import org.springframework.stereotype.Component;
  * The fields are populated from application properties using {@link Value}.
  *
  * <p>This class is also marked as a Spring {@link Component},
- * allowing it to be injected wherever needed.</p>
+ * allowing it to be injected into the {@link com.app.persistence.migration.V3__SeedAdminUser} migration.</p>
  *
  * @param name     the admin's first name, injected from the property {@code admin.name}
  * @param surname  the admin's surname, injected from the property {@code admin.surname}
@@ -41,25 +39,4 @@ public record CreateAdminUserDto(
         int age
 
 ) {
-        /**
-         * Converts this DTO into a {@link UserEntity} with admin privileges.
-         * Sets the user's role to {@link Role#ROLE_ADMIN}, enables the account,
-         * and initializes holiday hours to 0.
-         *
-         * @return a new instance of {@link UserEntity} configured as an admin
-         */
-        public UserEntity toUserEntity() {
-                return UserEntity
-                        .builder()
-                        .name(name)
-                        .surname(surname)
-                        .username(username)
-                        .password(password)
-                        .email(email)
-                        .age(age)
-                        .enable(true)
-                        .role(Role.ROLE_ADMIN)
-                        .holidaysHours(0)
-                        .build();
-        }
 }
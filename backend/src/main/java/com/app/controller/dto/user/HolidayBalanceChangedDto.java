@@ -0,0 +1,14 @@
+package com.app.controller.dto.user;
+
+/**
+ * A DTO published as an application event when an entry is added to the holiday balance ledger of a user.
+ * <p>
+ * This class contains the ID of the user whose cached balance is no longer valid.
+ * </p>
+ */
+public record HolidayBalanceChangedDto(
+        /**
+         * The unique identifier of the user.
+         */
+        Long userId) {
+}
@@ -0,0 +1,15 @@
+package com.app.controller.dto.user;
+
+/**
+ * A DTO published as an application event whenever data used for authentication changes.
+ * <p>
+ * This class contains the username whose cached security details are no longer valid,
+ * e.g. after a password change, an activation, a role change or a deletion.
+ * </p>
+ */
+public record UserChangedDto(
+        /**
+         * The username of the changed user.
+         */
+        String username) {
+}
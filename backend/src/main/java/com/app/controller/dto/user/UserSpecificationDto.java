@@ -1,5 +1,6 @@
 package com.app.controller.dto.user;
 
+import com.app.persistence.specification.model.UserCursor;
 import com.app.persistence.specification.model.UserSpecification;
 
 /**
@@ -13,20 +14,29 @@ import com.app.persistence.specification.model.UserSpecification;
  * @param maxAge           the maximum age to filter by (optional)
  * @param minHolidayHours  the minimum holiday hours to filter by (optional)
  * @param maxHolidayHours  the maximum holiday hours to filter by (optional)
+ * @param sort             the field to sort by, {@code id} if absent (optional)
+ * @param descending       whether to sort in descending order (optional)
+ * @param cursor           the cursor returned with the previous page (optional)
+ * @param limit            the maximum number of users in the page (optional)
+ * @param withTotal        whether to count all matching users (optional)
  */
 public record UserSpecificationDto(
         String name, String surname,
         String username, String email,
         Integer minAge, Integer maxAge,
-        Long minHolidayHours, Long maxHolidayHours) {
+        Long minHolidayHours, Long maxHolidayHours,
+        String sort, Boolean descending,
+        String cursor, Integer limit, Boolean withTotal) {
 
     /**
      * Converts this DTO to a {@link UserSpecification} used for querying the database.
      *
      * @return a new instance of {@link UserSpecification} initialized with the criteria from this DTO
+     * @throws IllegalArgumentException if the cursor is malformed
      */
     public UserSpecification toUserSpecification() {
         return new UserSpecification(
-                name, surname, username, email, minAge, maxAge, minHolidayHours, maxHolidayHours);
+                name, surname, username, email, minAge, maxAge, minHolidayHours, maxHolidayHours,
+                sort == null ? "id" : sort, Boolean.TRUE.equals(descending), UserCursor.decode(cursor));
     }
 }
@@ -0,0 +1,14 @@
+package com.app.controller.dto.user;
+
+/**
+ * A DTO published as an application event when the work schedule of a user changes.
+ * <p>
+ * This class contains the ID of the user whose compiled schedule is no longer valid.
+ * </p>
+ */
+public record WorkScheduleChangedDto(
+        /**
+         * The unique identifier of the user.
+         */
+        Long userId) {
+}
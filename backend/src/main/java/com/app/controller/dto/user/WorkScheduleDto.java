@@ -0,0 +1,57 @@
+package com.app.controller.dto.user;
+
+import com.app.persistence.entity.UserEntity;
+import com.app.persistence.entity.WorkScheduleEntity;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object (DTO) for setting the weekly working hours of a user.
+ * The schedule applies from {@code effectiveFrom} until the next schedule of the user becomes effective.
+ *
+ * @param userId         the unique identifier of the user
+ * @param effectiveFrom  the first day the schedule applies to
+ * @param mondayHours    the working hours on Mondays
+ * @param tuesdayHours   the working hours on Tuesdays
+ * @param wednesdayHours the working hours on Wednesdays
+ * @param thursdayHours  the working hours on Thursdays
+ * @param fridayHours    the working hours on Fridays
+ * @param saturdayHours  the working hours on Saturdays
+ * @param sundayHours    the working hours on Sundays
+ */
+public record WorkScheduleDto(
+        Long userId,
+        LocalDate effectiveFrom,
+        int mondayHours,
+        int tuesdayHours,
+        int wednesdayHours,
+        int thursdayHours,
+        int fridayHours,
+        int saturdayHours,
+        int sundayHours) {
+
+    /**
+     * Returns the working hours of every day of the week.
+     *
+     * @return the working hours indexed by {@link java.time.DayOfWeek#ordinal()}
+     */
+    public int[] hoursPerDayOfWeek() {
+        return new int[]{
+                mondayHours, tuesdayHours, wednesdayHours, thursdayHours, fridayHours, saturdayHours, sundayHours};
+    }
+
+    /**
+     * Converts this DTO to a new schedule entity of the given user.
+     *
+     * @param userEntity the user working according to the schedule
+     * @return a new {@link WorkScheduleEntity}
+     */
+    public WorkScheduleEntity toEntity(UserEntity userEntity) {
+        return WorkScheduleEntity
+                .builder()
+                .userEntity(userEntity)
+                .effectiveFrom(effectiveFrom)
+                .build()
+                .withHours(hoursPerDayOfWeek());
+    }
+}
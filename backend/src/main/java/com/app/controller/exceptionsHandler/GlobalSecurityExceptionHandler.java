@@ -1,10 +1,13 @@
 package com.app.controller.exceptionsHandler;
 
 import com.app.controller.dto.ResponseDto;
+import com.app.exception.TooManyRequestsException;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.*;
@@ -93,4 +96,20 @@ public class GlobalSecurityExceptionHandler {
         log.warn("Account status exception: ", e);
         return new ResponseDto<>("Account issue.");
     }
+
+    /**
+     * Handles requests rejected because a limited resource, such as the password hashing pool, is saturated.
+     * Returns HTTP 429 TOO MANY REQUESTS with a {@code Retry-After} header.
+     *
+     * @param e        the exception indicating the rejection
+     * @param response the HTTP response the {@code Retry-After} header is added to
+     * @return response containing the rejection message
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ResponseDto<String> handleTooManyRequests(TooManyRequestsException e, HttpServletResponse response) {
+        log.warn("Request rejected: {}", e.getMessage());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        return new ResponseDto<>(e.getMessage());
+    }
 }
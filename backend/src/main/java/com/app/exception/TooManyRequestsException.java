@@ -0,0 +1,33 @@
+package com.app.exception;
+
+/**
+ * Exception thrown when a request is rejected because a limited resource is saturated
+ * or the client exceeded its allowed request rate.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    /**
+     * Number of seconds after which the client may retry the request.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructs a new TooManyRequestsException with the specified detail message and retry delay.
+     *
+     * @param message           the detail message explaining the reason for the exception.
+     * @param retryAfterSeconds the number of seconds after which the request may be retried.
+     */
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Returns the number of seconds after which the request may be retried.
+     *
+     * @return the retry delay in seconds
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,35 @@
+package com.app.listener;
+
+import com.app.controller.dto.user.UserChangedDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Listener class responsible for keeping the login {@link UserCache} consistent with the database.
+ * <p>
+ * This class listens for user change events and removes the changed user from the cache once the change
+ * is committed, so the next login loads the current password, activation state and role.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheEvictionListener {
+
+    private final UserCache userCache;
+
+    /**
+     * Removes the changed user from the cache after the transaction has been committed.
+     * <p>
+     * Events published outside a transaction are handled immediately.
+     * </p>
+     *
+     * @param userChangedDto the event containing the username of the changed user
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void evict(UserChangedDto userChangedDto) {
+        userCache.removeUserFromCache(userChangedDto.username());
+    }
+}
@@ -0,0 +1,26 @@
+package com.app.model;
+
+/**
+ * Enumeration representing the reason a holiday balance changed.
+ */
+public enum LedgerReason {
+    /**
+     * The balance a user had before the ledger was introduced.
+     */
+    OPENING,
+
+    /**
+     * Holiday hours were taken by a new holiday request.
+     */
+    HOLIDAY_TAKEN,
+
+    /**
+     * Holiday hours were returned because a holiday request was rejected.
+     */
+    HOLIDAY_REFUNDED,
+
+    /**
+     * The balance was set by an administrator.
+     */
+    ADJUSTMENT,
+}
@@ -17,5 +17,23 @@ public enum Status {
     /**
      * The process or request is currently being processed.
      */
-    PROCESSING,
+    PROCESSING;
+
+    /**
+     * Checks whether a request in this status may be moved to the given status.
+     * <p>
+     * A request being processed may be accepted or rejected, and an accepted request may still be rejected.
+     * A rejected request is final. Staying in the same status is not a transition.
+     * </p>
+     *
+     * @param next the status to move to
+     * @return {@code true} if the transition is allowed
+     */
+    public boolean canTransitionTo(Status next) {
+        return switch (this) {
+            case PROCESSING -> next == ACCEPTED || next == REJECTED;
+            case ACCEPTED -> next == REJECTED;
+            case REJECTED -> false;
+        };
+    }
 }
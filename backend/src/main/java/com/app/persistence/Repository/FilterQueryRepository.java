@@ -0,0 +1,29 @@
+package com.app.persistence.Repository;
+
+import com.app.persistence.specification.FilterQuery;
+
+import java.util.List;
+
+/**
+ * Custom repository fragment running the queries built by the filter specifications.
+ */
+public interface FilterQueryRepository {
+
+    /**
+     * Reads the rows selected by the filter query.
+     *
+     * @param filterQuery the query to run
+     * @param limit       the maximum number of rows to read
+     * @param <T>         the type of the rows
+     * @return the selected rows in the order of the query
+     */
+    <T> List<T> fetch(FilterQuery<T> filterQuery, int limit);
+
+    /**
+     * Counts the rows matching the filter query.
+     *
+     * @param filterQuery the query to count
+     * @return the number of matching rows
+     */
+    long countMatching(FilterQuery<?> filterQuery);
+}
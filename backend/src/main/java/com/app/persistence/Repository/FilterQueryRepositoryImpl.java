@@ -0,0 +1,57 @@
+package com.app.persistence.Repository;
+
+import com.app.persistence.specification.FilterQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of {@link FilterQueryRepository} running the cached JPQL of a {@link FilterQuery},
+ * so repeated filters reuse the query plans Hibernate has already compiled.
+ */
+public class FilterQueryRepositoryImpl implements FilterQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Reads the rows selected by the filter query.
+     *
+     * @param filterQuery the query to run
+     * @param limit       the maximum number of rows to read
+     * @param <T>         the type of the rows
+     * @return the selected rows in the order of the query
+     */
+    @Override
+    public <T> List<T> fetch(FilterQuery<T> filterQuery, int limit) {
+        var query = entityManager.createQuery(filterQuery.jpql(), filterQuery.resultType());
+        bind(query, filterQuery.parameters());
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Counts the rows matching the filter query.
+     *
+     * @param filterQuery the query to count
+     * @return the number of matching rows
+     */
+    @Override
+    public long countMatching(FilterQuery<?> filterQuery) {
+        var query = entityManager.createQuery(filterQuery.countJpql(), Long.class);
+        bind(query, filterQuery.parameters());
+        return query.getSingleResult();
+    }
+
+    /**
+     * Binds the values of the named parameters.
+     *
+     * @param query      the query to bind
+     * @param parameters the values by parameter name
+     */
+    private static void bind(Query query, Map<String, Object> parameters) {
+        parameters.forEach(query::setParameter);
+    }
+}
@@ -0,0 +1,64 @@
+package com.app.persistence.Repository;
+
+import com.app.persistence.entity.HolidayBalanceLedgerEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link HolidayBalanceLedgerEntity} entities.
+ * Provides standard CRUD operations via {@link JpaRepository}, the sums used to derive balances
+ * and the bookkeeping of which entries the snapshots include.
+ */
+public interface HolidayBalanceLedgerRepository extends JpaRepository<HolidayBalanceLedgerEntity, Long> {
+
+    /**
+     * Sums the deltas of a user recorded before the given time that are not included in the snapshots
+     * taken up to the given snapshot time.
+     *
+     * @param userId     the ID of the user
+     * @param snapshotAt the time of the latest snapshot the sum continues from
+     * @param to         the end of the period (exclusive)
+     * @return the sum of the deltas, {@code 0} if there are none
+     */
+    @Query("""
+            select coalesce(sum(l.delta), 0) from HolidayBalanceLedgerEntity l
+            where l.userId = :userId and l.createdAt < :to
+            and (l.snapshotAt is null or l.snapshotAt > :snapshotAt)
+            """)
+    long sumDeltasAfterSnapshot(
+            @Param("userId") Long userId,
+            @Param("snapshotAt") LocalDateTime snapshotAt,
+            @Param("to") LocalDateTime to);
+
+    /**
+     * Finds the entries recorded before the given time that no snapshot includes yet.
+     *
+     * @param to the end of the period (exclusive)
+     * @return triples of the entry ID, the user ID and the delta
+     */
+    @Query("""
+            select l.id, l.userId, l.delta from HolidayBalanceLedgerEntity l
+            where l.snapshotAt is null and l.createdAt < :to
+            """)
+    List<Object[]> findNotSnapshotted(@Param("to") LocalDateTime to);
+
+    /**
+     * Marks the given entries as included in a snapshot, unless another snapshot already includes them.
+     *
+     * @param ids        the IDs of the entries
+     * @param snapshotAt the time of the snapshot
+     * @return the number of entries marked by this call
+     */
+    @Modifying
+    @Query("""
+            update HolidayBalanceLedgerEntity l set l.snapshotAt = :snapshotAt
+            where l.id in :ids and l.snapshotAt is null
+            """)
+    int markSnapshotted(@Param("ids") Collection<Long> ids, @Param("snapshotAt") LocalDateTime snapshotAt);
+}
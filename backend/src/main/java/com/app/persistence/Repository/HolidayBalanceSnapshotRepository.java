@@ -0,0 +1,41 @@
+package com.app.persistence.Repository;
+
+import com.app.persistence.entity.HolidayBalanceSnapshotEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing {@link HolidayBalanceSnapshotEntity} entities.
+ * Provides standard CRUD operations via {@link JpaRepository} and lookups of the latest snapshots.
+ */
+public interface HolidayBalanceSnapshotRepository extends JpaRepository<HolidayBalanceSnapshotEntity, Long> {
+
+    /**
+     * Finds the latest snapshot of a user taken no later than the given time.
+     *
+     * @param userId the ID of the user
+     * @param time   the latest time the snapshot may be taken at
+     * @return an {@link Optional} containing the snapshot, or empty if the user has none that early
+     */
+    Optional<HolidayBalanceSnapshotEntity> findFirstByUserIdAndTakenAtLessThanEqualOrderByTakenAtDesc(
+            Long userId, LocalDateTime time);
+
+    /**
+     * Finds the latest snapshot of each of the given users.
+     *
+     * @param userIds the IDs of the users
+     * @return the latest snapshot of every user that has one
+     */
+    @Query("""
+            select s from HolidayBalanceSnapshotEntity s
+            where s.userId in :userIds
+            and s.takenAt = (select max(s2.takenAt) from HolidayBalanceSnapshotEntity s2 where s2.userId = s.userId)
+            """)
+    List<HolidayBalanceSnapshotEntity> findLatestByUserIds(@Param("userIds") Collection<Long> userIds);
+}
@@ -1,17 +1,27 @@
 package com.app.persistence.Repository;
 
+import com.app.controller.dto.holiday.HolidayIntervalDto;
+import com.app.model.Status;
 import com.app.persistence.entity.HolidayEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for managing {@link HolidayEntity} entities.
  * Extends {@link JpaRepository} for basic CRUD operations and
  * {@link JpaSpecificationExecutor} for complex queries.
  */
-public interface HolidayRepository extends JpaRepository<HolidayEntity, Long>, JpaSpecificationExecutor<HolidayEntity> {
+public interface HolidayRepository
+        extends JpaRepository<HolidayEntity, Long>, JpaSpecificationExecutor<HolidayEntity>, FilterQueryRepository {
 
     /**
      * Checks if there is any existing holiday for a given user that overlaps
@@ -33,9 +43,75 @@ public interface HolidayRepository extends JpaRepository<HolidayEntity, Long>, J
     @Query("""
             select case when count(h) > 0 then true else false end from HolidayEntity h
             where h.userEntity.id = :userId
-            and (:startDate between h.startDate and h.endDate
-            or :endDate between h.startDate and h.endDate)
+            and h.startDate <= :endDate
+            and h.endDate >= :startDate
             and h.status != 'REJECTED'
             """)
-    boolean isHolidayAllow(Long userId, LocalDateTime startDate, LocalDateTime endDate);
+    boolean isHolidayAllow(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Retrieves the date ranges of all holidays of a user that are not in REJECTED status.
+     *
+     * @param userId the ID of the user whose holidays to retrieve
+     * @return the ranges of the user's non-rejected holidays
+     */
+    @Query("""
+            select new com.app.controller.dto.holiday.HolidayIntervalDto(h.id, h.startDate, h.endDate)
+            from HolidayEntity h
+            where h.userEntity.id = :userId
+            and h.status != 'REJECTED'
+            """)
+    List<HolidayIntervalDto> findIntervalsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Retrieves a holiday by ID and locks its row until the end of the current transaction
+     * ({@code SELECT ... FOR UPDATE}).
+     *
+     * @param id the ID of the holiday
+     * @return an {@link Optional} containing the locked {@link HolidayEntity}, or empty if no holiday found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from HolidayEntity h where h.id = :id")
+    Optional<HolidayEntity> findByIdForUpdate(Long id);
+
+    /**
+     * Changes the status of a holiday only if it still has the expected status.
+     *
+     * @param id       the ID of the holiday
+     * @param expected the status the holiday must currently have
+     * @param status   the new status
+     * @return the number of updated rows; {@code 0} if the holiday does not exist or its status differs
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update HolidayEntity h set h.status = :status where h.id = :id and h.status = :expected")
+    int compareAndSetStatus(@Param("id") Long id, @Param("expected") Status expected, @Param("status") Status status);
+
+    /**
+     * Retrieves the holidays with the given IDs and locks their rows until the end of the current transaction
+     * ({@code SELECT ... FOR UPDATE}).
+     *
+     * @param ids the IDs of the holidays
+     * @return the locked holidays that exist
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from HolidayEntity h where h.id in :ids")
+    List<HolidayEntity> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Changes the status of the given holidays that currently have one of the expected statuses.
+     *
+     * @param ids      the IDs of the holidays
+     * @param expected the statuses a holiday must currently have to be changed
+     * @param status   the new status
+     * @return the number of updated rows
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update HolidayEntity h set h.status = :status where h.id in :ids and h.status in :expected")
+    int compareAndSetStatuses(
+            @Param("ids") Collection<Long> ids,
+            @Param("expected") Collection<Status> expected,
+            @Param("status") Status status);
 }
@@ -0,0 +1,69 @@
+package com.app.persistence.Repository;
+
+import com.app.persistence.entity.RefreshTokenEntity;
+import com.app.security.dto.RefreshTokenStateDto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing {@link RefreshTokenEntity} entities.
+ * Provides standard CRUD operations via {@link JpaRepository} and the bulk updates used
+ * by the rotation of refresh tokens.
+ */
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, Long> {
+
+    /**
+     * Reads the rotation state of a refresh token from the database.
+     *
+     * @param jti the unique identifier of the token
+     * @return an {@link Optional} containing the state of the token, or empty if no token found
+     */
+    @Query("""
+            select new com.app.security.dto.RefreshTokenStateDto(r.familyId, r.consumedAt, r.revoked)
+            from RefreshTokenEntity r where r.jti = :jti
+            """)
+    Optional<RefreshTokenStateDto> findStateByJti(@Param("jti") String jti);
+
+    /**
+     * Marks the refresh token as consumed, unless it has already been consumed or revoked.
+     * The conditional update lets exactly one node win the rotation of a token.
+     *
+     * @param jti        the unique identifier of the token
+     * @param consumedAt the consumption time in epoch milliseconds
+     * @return {@code 1} if the token was consumed by this call, {@code 0} otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update RefreshTokenEntity r set r.consumedAt = :consumedAt
+            where r.jti = :jti and r.consumedAt is null and r.revoked = false
+            """)
+    int consume(@Param("jti") String jti, @Param("consumedAt") Long consumedAt);
+
+    /**
+     * Revokes all refresh tokens of the given families.
+     *
+     * @param familyIds the identifiers of the revoked families
+     * @return the number of updated rows
+     */
+    @Transactional
+    @Modifying
+    @Query("update RefreshTokenEntity r set r.revoked = true where r.familyId in :familyIds")
+    int revokeFamilies(@Param("familyIds") Collection<String> familyIds);
+
+    /**
+     * Deletes the refresh tokens that have already expired.
+     *
+     * @param now the current time in epoch milliseconds
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query("delete from RefreshTokenEntity r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Long now);
+}
@@ -0,0 +1,44 @@
+package com.app.persistence.Repository;
+
+import com.app.persistence.entity.RevokedTokenEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link RevokedTokenEntity} entities.
+ * Provides standard CRUD operations via {@link JpaRepository} and the queries used to
+ * rebuild and purge the in-memory revocation set.
+ */
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, Long> {
+
+    /**
+     * Finds all revoked tokens that have not expired yet.
+     *
+     * @param now the current time in epoch milliseconds
+     * @return the revoked tokens expiring after {@code now}
+     */
+    List<RevokedTokenEntity> findAllByExpiresAtGreaterThan(Long now);
+
+    /**
+     * Finds the revoked tokens revoked since the given time that have not expired yet.
+     *
+     * @param since the earliest revocation time in epoch milliseconds
+     * @param now   the current time in epoch milliseconds
+     * @return the revoked tokens revoked at or after {@code since} and expiring after {@code now}
+     */
+    List<RevokedTokenEntity> findAllByRevokedAtGreaterThanEqualAndExpiresAtGreaterThan(long since, Long now);
+
+    /**
+     * Deletes the revoked tokens that have already expired.
+     *
+     * @param now the current time in epoch milliseconds
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query("delete from RevokedTokenEntity r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Long now);
+}
@@ -1,8 +1,15 @@
 package com.app.persistence.Repository;
 
 import com.app.persistence.entity.UserEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 
 /**
@@ -10,7 +17,8 @@ import java.util.Optional;
  * Provides standard CRUD operations via {@link JpaRepository} and supports
  * complex queries via {@link JpaSpecificationExecutor}.
  */
-public interface UserRepository extends JpaRepository<UserEntity, Long>, JpaSpecificationExecutor<UserEntity> {
+public interface UserRepository
+        extends JpaRepository<UserEntity, Long>, JpaSpecificationExecutor<UserEntity>, FilterQueryRepository {
 
     /**
      * Finds a user by their username.
@@ -27,4 +35,104 @@ public interface UserRepository extends JpaRepository<UserEntity, Long>, JpaSpec
      * @return an {@link Optional} containing the found {@link UserEntity}, or empty if no user found
      */
     Optional<UserEntity> findByEmail(String email);
+
+    /**
+     * Replaces the stored password hash of a user without touching any other column.
+     * <p>
+     * Used to upgrade hashes with an outdated work factor on login. The password itself does not change,
+     * so the token version is intentionally left as it is.
+     * </p>
+     *
+     * @param username the username of the user
+     * @param password the new encoded password
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update UserEntity u set u.password = :password where u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+
+    /**
+     * Sets a new password of a user and increments the token version, without touching any other column.
+     * Tokens issued with the old password can no longer be refreshed.
+     *
+     * @param id       the ID of the user
+     * @param password the new encoded password
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update UserEntity u set u.password = :password, u.tokenVersion = u.tokenVersion + 1 where u.id = :id")
+    int changePassword(@Param("id") Long id, @Param("password") String password);
+
+    /**
+     * Enables the account of a user without touching any other column.
+     *
+     * @param id the ID of the user
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update UserEntity u set u.enable = true where u.id = :id")
+    int activate(@Param("id") Long id);
+
+    /**
+     * Sets a new email of a user and enables the account, without touching any other column.
+     *
+     * @param id    the ID of the user
+     * @param email the new email address
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update UserEntity u set u.email = :email, u.enable = true where u.id = :id")
+    int changeEmail(@Param("id") Long id, @Param("email") String email);
+
+    /**
+     * Marks a user as deleted without touching any other column: the email is suffixed with "-delete",
+     * the account is disabled and the token version is incremented.
+     *
+     * @param id the ID of the user
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("""
+            update UserEntity u set u.email = concat(u.email, '-delete'), u.enable = false,
+            u.tokenVersion = u.tokenVersion + 1
+            where u.id = :id
+            """)
+    int markDeleted(@Param("id") Long id);
+
+    /**
+     * Takes holiday hours from a user's balance in a single statement, only if the balance covers them.
+     *
+     * @param id    the ID of the user
+     * @param hours the number of holiday hours to take
+     * @return the number of updated rows; {@code 0} if the user does not exist or has too few hours left
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update UserEntity u set u.holidaysHours = u.holidaysHours - :hours
+            where u.id = :id and u.holidaysHours >= :hours
+            """)
+    int debitHolidayHours(@Param("id") Long id, @Param("hours") long hours);
+
+    /**
+     * Returns holiday hours to a user's balance in a single statement.
+     *
+     * @param id    the ID of the user
+     * @param hours the number of holiday hours to return
+     * @return the number of updated rows; {@code 0} if the user does not exist
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update UserEntity u set u.holidaysHours = u.holidaysHours + :hours where u.id = :id")
+    int creditHolidayHours(@Param("id") Long id, @Param("hours") long hours);
+
+    /**
+     * Retrieves a user by ID and locks its row until the end of the current transaction
+     * ({@code SELECT ... FOR UPDATE}).
+     *
+     * @param id the ID of the user
+     * @return an {@link Optional} containing the locked {@link UserEntity}, or empty if no user found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("select u from UserEntity u where u.id = :id")
+    Optional<UserEntity> findByIdForUpdate(@Param("id") Long id);
 }
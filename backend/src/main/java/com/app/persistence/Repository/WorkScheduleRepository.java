@@ -0,0 +1,32 @@
+package com.app.persistence.Repository;
+
+import com.app.persistence.entity.WorkScheduleEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing {@link WorkScheduleEntity} entities.
+ * Provides standard CRUD operations via {@link JpaRepository} and lookups of the schedules of a user.
+ */
+public interface WorkScheduleRepository extends JpaRepository<WorkScheduleEntity, Long> {
+
+    /**
+     * Finds all schedules of a user, ordered by the date they become effective.
+     *
+     * @param userId the ID of the user
+     * @return the schedules of the user, the earliest first
+     */
+    List<WorkScheduleEntity> findAllByUserEntityIdOrderByEffectiveFromAsc(Long userId);
+
+    /**
+     * Finds the schedule of a user becoming effective on the given date.
+     *
+     * @param userId        the ID of the user
+     * @param effectiveFrom the first day of the schedule
+     * @return an {@link Optional} containing the found {@link WorkScheduleEntity}, or empty if no schedule found
+     */
+    Optional<WorkScheduleEntity> findByUserEntityIdAndEffectiveFrom(Long userId, LocalDate effectiveFrom);
+}
@@ -0,0 +1,66 @@
+package com.app.persistence.entity;
+
+import com.app.model.LedgerReason;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * JPA Entity representing a single change of a user's holiday balance.
+ * <p>
+ * Rows are inserted once and afterwards only marked with the snapshot that covers them. The balance of a user
+ * at any point in time is the latest {@link HolidayBalanceSnapshotEntity} taken before it plus the deltas recorded
+ * before the time that the snapshot does not cover.
+ * </p>
+ */
+@ToString(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+@Getter
+@Entity
+@Table(name = "holiday_balance_ledger",
+        indexes = {
+                @Index(columnList = "userId, createdAt"),
+                @Index(name = "ix_holiday_balance_ledger_snapshot_at_created_at", columnList = "snapshotAt, createdAt")
+        })
+public class HolidayBalanceLedgerEntity extends BaseEntity {
+
+    /**
+     * The ID of the user whose balance changed.
+     */
+    @Column(nullable = false)
+    private Long userId;
+
+    /**
+     * The number of holiday hours added to the balance; negative when hours were taken.
+     */
+    private long delta;
+
+    /**
+     * The reason of the change.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private LedgerReason reason;
+
+    /**
+     * The ID of the holiday request that caused the change, or {@code null} if none did.
+     */
+    private Long holidayId;
+
+    /**
+     * The time the change was recorded.
+     */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * The time of the snapshot that includes the change, or {@code null} if no snapshot includes it yet.
+     * A change may be included in a snapshot taken long after it was recorded, if its transaction
+     * committed only after earlier snapshots had been taken.
+     */
+    private LocalDateTime snapshotAt;
+}
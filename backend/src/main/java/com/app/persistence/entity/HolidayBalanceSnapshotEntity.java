@@ -0,0 +1,44 @@
+package com.app.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * JPA Entity representing the holiday balance of a user at a point in time.
+ * <p>
+ * A snapshot holds the sum of all ledger entries of the user recorded before {@code takenAt}, so reading a
+ * balance only has to add the entries recorded since.
+ * </p>
+ */
+@ToString(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+@Getter
+@Entity
+@Table(name = "holiday_balance_snapshots",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"userId", "takenAt"})
+        })
+public class HolidayBalanceSnapshotEntity extends BaseEntity {
+
+    /**
+     * The ID of the user the snapshot belongs to.
+     */
+    @Column(nullable = false)
+    private Long userId;
+
+    /**
+     * The balance of the user in holiday hours.
+     */
+    private long balance;
+
+    /**
+     * The time the snapshot is valid at; ledger entries recorded before it are included.
+     */
+    @Column(nullable = false)
+    private LocalDateTime takenAt;
+}
@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
 
 /**
  * Entity representing a holiday request or record.
- * Maps to the "holidays" table with a unique constraint on start and end dates.
+ * Maps to the "holidays" table. The overlap check reads the user's holidays through the index on
+ * user, status and dates; the schema migrations additionally keep the dates of a user's non-rejected
+ * holidays unique, so two users can book the same dates.
  * Extends {@link BaseEntity} to inherit the identifier.
  */
 @Getter
@@ -21,8 +23,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Entity
 @Table(name = "holidays",
-        uniqueConstraints = {
-                @UniqueConstraint(columnNames = {"startDate", "endDate"})
+        indexes = {
+                @Index(name = "ix_holidays_user_status_dates", columnList = "user_id, status, startDate, endDate"),
+                @Index(name = "ix_holidays_start_date_id", columnList = "startDate, id")
         })
 public class HolidayEntity extends BaseEntity {
 
@@ -42,11 +45,17 @@ public class HolidayEntity extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private Status status;
 
+    /**
+     * The number of holiday hours charged for this holiday, refunded when it is rejected.
+     * Holidays created before the hours were stored have no value.
+     */
+    private Long hours;
+
     /**
      * The user who requested or is associated with this holiday.
-     * Eagerly fetched for immediate availability.
+     * Lazily fetched; listings read only the user ID from the foreign key.
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private UserEntity userEntity;
 
@@ -62,6 +71,24 @@ public class HolidayEntity extends BaseEntity {
                 .startDate(startDate)
                 .endDate(endDate)
                 .status(status)
+                .hours(hours)
+                .userEntity(userEntity)
+                .build();
+    }
+
+    /**
+     * Creates a new HolidayEntity with the given charged hours, copying existing fields including id.
+     *
+     * @param hours the number of holiday hours charged for this holiday
+     * @return a new HolidayEntity instance with updated hours
+     */
+    public HolidayEntity withHours(Long hours) {
+        return HolidayEntity.builder()
+                .id(id)
+                .startDate(startDate)
+                .endDate(endDate)
+                .status(status)
+                .hours(hours)
                 .userEntity(userEntity)
                 .build();
     }
@@ -78,6 +105,7 @@ public class HolidayEntity extends BaseEntity {
                 .startDate(startDate)
                 .endDate(endDate)
                 .status(status)
+                .hours(hours)
                 .userEntity(userEntity)
                 .build();
     }
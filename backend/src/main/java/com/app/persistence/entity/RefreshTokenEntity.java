@@ -0,0 +1,62 @@
+package com.app.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * JPA Entity representing an issued refresh token.
+ * <p>
+ * Refresh tokens issued from one login form a family sharing the same {@code familyId}. Every token may be
+ * exchanged once; the time of the exchange is stored in {@code consumedAt}. When a consumed token is presented
+ * again after the grace period, the whole family is revoked. The rows are the only record of the rotation
+ * state, shared by all nodes.
+ * </p>
+ */
+@ToString(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+@Getter
+@Entity
+@Table(name = "refresh_tokens",
+        indexes = {
+                @Index(name = "ix_refresh_tokens_family_id", columnList = "familyId")
+        })
+public class RefreshTokenEntity extends BaseEntity {
+
+    /**
+     * The unique identifier ({@code jti} claim) of the refresh token.
+     */
+    @Column(unique = true, nullable = false)
+    private String jti;
+
+    /**
+     * The identifier of the token family, shared by all tokens rotated from the same login.
+     */
+    @Column(nullable = false)
+    private String familyId;
+
+    /**
+     * The ID of the user the token was issued for.
+     */
+    private Long userId;
+
+    /**
+     * The expiration time of the token in epoch milliseconds.
+     */
+    private Long expiresAt;
+
+    /**
+     * The time the token was exchanged for a new pair in epoch milliseconds, or {@code null} if unused.
+     */
+    private Long consumedAt;
+
+    /**
+     * Whether the family of the token has been revoked because a consumed token was reused.
+     */
+    private boolean revoked;
+}
@@ -0,0 +1,45 @@
+package com.app.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * JPA Entity representing a revoked JSON Web Token.
+ * <p>
+ * A row is written when a token is invalidated before its expiration, e.g. on logout. The rows are the durable copy of the in-memory revocation set and are removed once the token
+ * would have expired anyway.
+ * </p>
+ */
+@ToString(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+@Getter
+@Entity
+@Table(name = "revoked_tokens",
+        indexes = {
+                @Index(name = "ix_revoked_tokens_revoked_at", columnList = "revokedAt")
+        })
+public class RevokedTokenEntity extends BaseEntity {
+
+    /**
+     * The unique identifier ({@code jti} claim) of the revoked token.
+     */
+    @Column(unique = true, nullable = false)
+    private String jti;
+
+    /**
+     * The expiration time of the revoked token in epoch milliseconds.
+     */
+    private Long expiresAt;
+
+    /**
+     * The time the token was revoked in epoch milliseconds.
+     * Other nodes read only the revocations made since their previous refresh by this time.
+     */
+    private long revokedAt;
+}
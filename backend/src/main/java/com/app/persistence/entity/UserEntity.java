@@ -3,13 +3,14 @@ package com.app.persistence.entity;
 import com.app.controller.dto.user.UserDto;
 import com.app.model.Role;
 import com.app.security.dto.UserDetailsDto;
-import com.app.security.dto.UsernamePasswordAuthenticationTokenDto;
+import com.app.security.dto.AuthenticatedUser;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -18,13 +19,19 @@ import java.util.List;
  * Represents a user in the system.
  * This entity maps to the "users" table in the database.
  * Extends {@link BaseEntity} to inherit the ID.
+ * Updates write only the changed columns, so a save that does not change the holiday balance never writes it back.
  */
 @Getter
 @SuperBuilder
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "users")
+@DynamicUpdate
+@Table(name = "users",
+        indexes = {
+                @Index(name = "ux_users_username", columnList = "username", unique = true),
+                @Index(name = "ix_users_email", columnList = "email")
+        })
 public class UserEntity extends BaseEntity {
 
     /**
@@ -73,6 +80,13 @@ public class UserEntity extends BaseEntity {
      */
     private boolean enable;
 
+    /**
+     * Version of the user's tokens.
+     * Signed into every issued token and incremented when the password, role or account state changes,
+     * which revokes all refresh tokens issued before the change.
+     */
+    private long tokenVersion;
+
     /**
      * List of holidays associated with this user.
      * Cascade persist to save holidays automatically when saving the user.
@@ -81,30 +95,9 @@ public class UserEntity extends BaseEntity {
     @Builder.Default
     private List<HolidayEntity> users = new ArrayList<>();
 
-    /**
-     * Returns a new UserEntity instance with updated holiday hours (incremented).
-     * Copies all other fields from the current instance.
-     *
-     * @param holidaysHours the amount of holiday hours to add
-     * @return a new UserEntity with updated holidaysHours
-     */
-    public UserEntity UserEntityWithHolidays(long holidaysHours) {
-        return UserEntity.builder()
-                .id(id)
-                .name(name)
-                .surname(surname)
-                .username(username)
-                .email(email)
-                .password(password)
-                .age(age)
-                .role(role)
-                .enable(enable)
-                .holidaysHours(this.holidaysHours + holidaysHours)
-                .build();
-    }
-
     /**
      * Returns a new UserEntity instance with the specified password.
+     * Increments the token version, so tokens issued with the old password can no longer be refreshed.
      *
      * @param password new password
      * @return new UserEntity with updated password
@@ -121,26 +114,7 @@ public class UserEntity extends BaseEntity {
                 .role(role)
                 .enable(enable)
                 .holidaysHours(holidaysHours)
-                .build();
-    }
-
-    /**
-     * Returns a new UserEntity instance with account enabled.
-     *
-     * @return new UserEntity with enable = true
-     */
-    public UserEntity withActivation() {
-        return UserEntity.builder()
-                .id(id)
-                .name(name)
-                .surname(surname)
-                .username(username)
-                .email(email)
-                .password(password)
-                .age(age)
-                .role(role)
-                .enable(true)
-                .holidaysHours(holidaysHours)
+                .tokenVersion(tokenVersion + 1)
                 .build();
     }
 
@@ -161,53 +135,13 @@ public class UserEntity extends BaseEntity {
                 .role(role)
                 .enable(false)
                 .holidaysHours(holidaysHours)
-                .build();
-    }
-
-    /**
-     * Returns a new UserEntity instance representing a deleted user.
-     * Email is suffixed with "-delete" and account is disabled.
-     *
-     * @return new UserEntity marked as deleted
-     */
-    public UserEntity withDelete() {
-        return UserEntity.builder()
-                .id(id)
-                .name(name)
-                .surname(surname)
-                .username(username)
-                .email(email + "-delete")
-                .password(password)
-                .age(age)
-                .role(role)
-                .enable(false)
-                .holidaysHours(holidaysHours)
-                .build();
-    }
-
-    /**
-     * Returns a new UserEntity instance with a new email and account enabled.
-     *
-     * @param email new email address
-     * @return new UserEntity with updated email and enabled
-     */
-    public UserEntity withNewEmail(String email) {
-        return UserEntity.builder()
-                .id(id)
-                .name(name)
-                .surname(surname)
-                .username(username)
-                .email(email)
-                .password(password)
-                .age(age)
-                .role(role)
-                .enable(true)
-                .holidaysHours(holidaysHours)
+                .tokenVersion(tokenVersion)
                 .build();
     }
 
     /**
      * Returns a new UserEntity with updated role and holiday hours, account enabled.
+     * Increments the token version, so tokens carrying the old role can no longer be refreshed.
      *
      * @param holidaysHours new holiday hours
      * @param role          new user role
@@ -225,6 +159,7 @@ public class UserEntity extends BaseEntity {
                 .role(role)
                 .enable(true)
                 .holidaysHours(holidaysHours)
+                .tokenVersion(tokenVersion + 1)
                 .build();
     }
 
@@ -247,13 +182,13 @@ public class UserEntity extends BaseEntity {
     }
 
     /**
-     * Converts this entity to UsernamePasswordAuthenticationTokenDto,
-     * which contains the username and role string.
+     * Converts this entity to the AuthenticatedUser principal,
+     * which contains the id, username and role.
      *
-     * @return UsernamePasswordAuthenticationTokenDto with username and role
+     * @return AuthenticatedUser with id, username and role
      */
-    public UsernamePasswordAuthenticationTokenDto toUsernamePasswordAuthenticationTokenDto() {
-        return new UsernamePasswordAuthenticationTokenDto(username, role.toString());
+    public AuthenticatedUser toAuthenticatedUser() {
+        return new AuthenticatedUser(id, username, role);
     }
 
     /**
@@ -27,7 +27,10 @@ import java.util.Optional;
 @Setter
 @Getter
 @Entity
-@Table(name = "verification_token")
+@Table(name = "verification_token",
+        indexes = {
+                @Index(name = "ix_verification_token_token", columnList = "token")
+        })
 public class VerificationTokenEntity extends BaseEntity {
 
     /**
@@ -0,0 +1,106 @@
+package com.app.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDate;
+
+/**
+ * Entity representing the weekly working hours of a user, valid from a given date.
+ * Maps to the "work_schedules" table with a unique constraint on the user and the effective date.
+ * A schedule applies until the next schedule of the same user becomes effective.
+ * Extends {@link BaseEntity} to inherit the identifier.
+ */
+@Getter
+@SuperBuilder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "work_schedules",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"user_id", "effectiveFrom"})
+        })
+public class WorkScheduleEntity extends BaseEntity {
+
+    /**
+     * The user working according to this schedule.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private UserEntity userEntity;
+
+    /**
+     * The first day the schedule applies to.
+     */
+    private LocalDate effectiveFrom;
+
+    /**
+     * The working hours on Mondays.
+     */
+    private int mondayHours;
+
+    /**
+     * The working hours on Tuesdays.
+     */
+    private int tuesdayHours;
+
+    /**
+     * The working hours on Wednesdays.
+     */
+    private int wednesdayHours;
+
+    /**
+     * The working hours on Thursdays.
+     */
+    private int thursdayHours;
+
+    /**
+     * The working hours on Fridays.
+     */
+    private int fridayHours;
+
+    /**
+     * The working hours on Saturdays.
+     */
+    private int saturdayHours;
+
+    /**
+     * The working hours on Sundays.
+     */
+    private int sundayHours;
+
+    /**
+     * Creates a new WorkScheduleEntity with the given hours, copying the identifier, user and effective date.
+     *
+     * @param hours the working hours indexed by {@link java.time.DayOfWeek#ordinal()}
+     * @return a new WorkScheduleEntity instance with updated hours
+     */
+    public WorkScheduleEntity withHours(int[] hours) {
+        return WorkScheduleEntity
+                .builder()
+                .id(id)
+                .userEntity(userEntity)
+                .effectiveFrom(effectiveFrom)
+                .mondayHours(hours[0])
+                .tuesdayHours(hours[1])
+                .wednesdayHours(hours[2])
+                .thursdayHours(hours[3])
+                .fridayHours(hours[4])
+                .saturdayHours(hours[5])
+                .sundayHours(hours[6])
+                .build();
+    }
+
+    /**
+     * Returns the working hours of every day of the week.
+     *
+     * @return the working hours indexed by {@link java.time.DayOfWeek#ordinal()}
+     */
+    public int[] hoursPerDayOfWeek() {
+        return new int[]{
+                mondayHours, tuesdayHours, wednesdayHours, thursdayHours, fridayHours, saturdayHours, sundayHours};
+    }
+}
@@ -0,0 +1,68 @@
+package com.app.persistence.migration;
+
+import com.app.controller.dto.user.CreateAdminUserDto;
+import com.app.model.Role;
+import lombok.RequiredArgsConstructor;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Schema migration creating the admin user from the {@code admin.*} properties.
+ * <p>
+ * The migration is a Spring bean, so the password is hashed by the application's {@link PasswordEncoder}
+ * and never stored in plain text in a migration script. Like every migration it runs once per database,
+ * so restarting the application keeps the existing admin.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class V3__SeedAdminUser extends BaseJavaMigration {
+
+    /**
+     * ID of the admin user.
+     */
+    private static final long ADMIN_ID = 1;
+
+    /**
+     * Next value of the users ID generator once the admin exists. The pooled generator allocates
+     * the 49 IDs below a read value, so the following users get IDs from 2 on.
+     */
+    private static final long NEXT_USER_ID_VALUE = 51;
+
+    private final CreateAdminUserDto createAdminUserDto;
+    private final PasswordEncoder passwordEncoder;
+
+    /**
+     * Inserts the admin user and moves the users ID generator past its ID.
+     *
+     * @param context the migration context providing the connection
+     * @throws Exception if the statements fail
+     */
+    @Override
+    public void migrate(Context context) throws Exception {
+        var connection = context.getConnection();
+
+        try (var statement = connection.prepareStatement("""
+                insert into users (id, name, surname, username, password, email, age, role,
+                                   holidays_hours, enable, token_version)
+                values (?, ?, ?, ?, ?, ?, ?, ?, 0, true, 0)
+                """)) {
+            statement.setLong(1, ADMIN_ID);
+            statement.setString(2, createAdminUserDto.name());
+            statement.setString(3, createAdminUserDto.surname());
+            statement.setString(4, createAdminUserDto.username());
+            statement.setString(5, passwordEncoder.encode(createAdminUserDto.password()));
+            statement.setString(6, createAdminUserDto.email());
+            statement.setInt(7, createAdminUserDto.age());
+            statement.setString(8, Role.ROLE_ADMIN.name());
+            statement.executeUpdate();
+        }
+
+        try (var statement = connection.prepareStatement("update users_seq set next_val = ?")) {
+            statement.setLong(1, NEXT_USER_ID_VALUE);
+            statement.executeUpdate();
+        }
+    }
+}
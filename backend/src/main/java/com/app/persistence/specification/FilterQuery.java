@@ -0,0 +1,19 @@
+package com.app.persistence.specification;
+
+import java.util.Map;
+
+/**
+ * A filter query ready to run: the cached JPQL of its shape and the values bound to the shape's parameters.
+ * <p>
+ * Queries with the same set of present criteria share the same JPQL strings, so Hibernate translates each
+ * shape once and then serves it from its query plan cache.
+ * </p>
+ *
+ * @param <T>        the type of the selected rows
+ * @param resultType the class of the selected rows
+ * @param jpql       the JPQL selecting the matching rows in order
+ * @param countJpql  the JPQL counting the matching rows
+ * @param parameters the values of the named parameters of both queries
+ */
+public record FilterQuery<T>(Class<T> resultType, String jpql, String countJpql, Map<String, Object> parameters) {
+}
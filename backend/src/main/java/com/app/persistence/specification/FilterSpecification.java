@@ -1,20 +1,22 @@
 package com.app.persistence.specification;
 
-import org.springframework.data.jpa.domain.Specification;
-
 /**
- * Generic interface for building dynamic {@link Specification} filters for JPA entities.
+ * Generic interface for building dynamic filter queries from a specification model.
+ * <p>
+ * Implementations derive a shape from the criteria present in the model, compile each shape to JPQL once and
+ * bind the criteria values as parameters.
+ * </p>
  *
- * @param <T> the type of the JPA entity to filter
+ * @param <T> the type of the rows selected by the query
  * @param <U> the type of the specification model containing filtering criteria
  */
 public interface FilterSpecification<T, U> {
 
     /**
-     * Builds a dynamic {@link Specification} for the given specification criteria.
+     * Builds the filter query for the given specification criteria.
      *
      * @param specification an object containing filter criteria
-     * @return a JPA {@link Specification} to be used in repository queries
+     * @return a {@link FilterQuery} to be run by the repositories
      */
-    Specification<T> dynamicFilter(U specification);
+    FilterQuery<T> dynamicFilter(U specification);
 }
@@ -1,23 +1,47 @@
 package com.app.persistence.specification.impl;
 
-import com.app.persistence.entity.HolidayEntity;
-import com.app.persistence.entity.UserEntity;
+import com.app.controller.dto.holiday.HolidayDto;
+import com.app.persistence.specification.FilterQuery;
 import com.app.persistence.specification.FilterSpecification;
 import com.app.persistence.specification.model.HolidaySpecification;
-import jakarta.persistence.criteria.Join;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
- * Implementation of {@link FilterSpecification} for filtering {@link HolidayEntity} instances
- * dynamically based on the provided {@link HolidaySpecification} criteria.
+ * Implementation of {@link FilterSpecification} selecting holidays as {@link HolidayDto} projections
+ * based on the provided {@link HolidaySpecification} criteria.
+ * <p>
+ * The present criteria form a bitmask; the JPQL of every mask is built on first use and cached, and the
+ * criteria values are bound as parameters. The user ID is taken from the foreign key, so no user row is read.
+ * </p>
  */
 @Component
-public class HolidayFilterSpecificationImpl implements FilterSpecification<HolidayEntity, HolidaySpecification> {
+public class HolidayFilterSpecificationImpl implements FilterSpecification<HolidayDto, HolidaySpecification> {
+
+    private static final int ID = 1;
+    private static final int USER_ID = 1 << 1;
+    private static final int START_DATE = 1 << 2;
+    private static final int END_DATE = 1 << 3;
+    private static final int STATUS = 1 << 4;
+    private static final int AFTER = 1 << 5;
+
+    private static final String SELECT = """
+            select new com.app.controller.dto.holiday.HolidayDto(h.id, h.userEntity.id, h.startDate, h.endDate, h.status)
+            from HolidayEntity h""";
+    private static final String COUNT = "select count(h) from HolidayEntity h";
+    private static final String ORDER = " order by h.startDate, h.id";
 
     /**
-     * Builds a dynamic JPA {@link Specification} for {@link HolidayEntity} based on
-     * the non-null fields of the given {@link HolidaySpecification}.
+     * JPQL of both queries by criteria mask.
+     */
+    private final Map<Integer, String[]> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Builds the filter query for the non-null fields of the given {@link HolidaySpecification}.
      *
      * <p>Supports filtering by:
      * <ul>
@@ -26,53 +50,74 @@ public class HolidayFilterSpecificationImpl implements FilterSpecification<Holid
      *   <li>status - filters holidays matching the given status</li>
      *   <li>id - filters holidays matching the given id</li>
      *   <li>userId - filters holidays belonging to the user with the given userId</li>
+     *   <li>after - filters holidays ordered after the cursor by (startDate, id)</li>
      * </ul>
+     * Holidays are ordered by start date and ID.
      *
      * @param specification the filter criteria to apply
-     * @return a JPA {@link Specification} representing the combined filter conditions
+     * @return the {@link FilterQuery} selecting the matching holidays
      */
     @Override
-    public Specification<HolidayEntity> dynamicFilter(HolidaySpecification specification) {
-        return ((root, query, cb) -> {
-            var p = cb.conjunction();
-
-            if (specification.startDate() != null) {
-                p = cb.and(
-                        p,
-                        cb.greaterThanOrEqualTo(root.get("startDate"), specification.startDate())
-                );
-            }
+    public FilterQuery<HolidayDto> dynamicFilter(HolidaySpecification specification) {
+        var mask = 0;
+        var parameters = new HashMap<String, Object>();
 
-            if (specification.endDate() != null) {
-                p = cb.and(
-                        p,
-                        cb.lessThanOrEqualTo(root.get("endDate"), specification.endDate())
-                );
-            }
+        if (specification.id() != null) {
+            mask |= ID;
+            parameters.put("id", specification.id());
+        }
+        if (specification.userId() != null) {
+            mask |= USER_ID;
+            parameters.put("userId", specification.userId());
+        }
+        if (specification.startDate() != null) {
+            mask |= START_DATE;
+            parameters.put("startDate", specification.startDate());
+        }
+        if (specification.endDate() != null) {
+            mask |= END_DATE;
+            parameters.put("endDate", specification.endDate());
+        }
+        if (specification.status() != null) {
+            mask |= STATUS;
+            parameters.put("status", specification.status());
+        }
+        if (specification.after() != null) {
+            mask |= AFTER;
+            parameters.put("afterStartDate", specification.after().startDate());
+            parameters.put("afterId", specification.after().id());
+        }
 
-            if (specification.status() != null) {
-                p = cb.and(
-                        p,
-                        cb.equal(root.get("status"), specification.status())
-                );
-            }
-
-            if (specification.id() != null) {
-                p = cb.and(
-                        p,
-                        cb.equal(root.get("id"), specification.id())
-                );
-            }
-
-            if (specification.userId() != null) {
-                Join<HolidayEntity, UserEntity> userJoin = root.join("userEntity");
-                p = cb.and(
-                        p,
-                        cb.equal(userJoin.get("id"), specification.userId())
-                );
-            }
+        var template = templates.computeIfAbsent(mask, HolidayFilterSpecificationImpl::compile);
+        return new FilterQuery<>(HolidayDto.class, template[0], template[1], parameters);
+    }
 
-            return p;
-        });
+    /**
+     * Builds the JPQL of the queries for one criteria mask.
+     *
+     * @param mask the present criteria
+     * @return the selecting and the counting JPQL
+     */
+    private static String[] compile(int mask) {
+        var where = new StringJoiner(" and ", " where ", "").setEmptyValue("");
+        if ((mask & ID) != 0) {
+            where.add("h.id = :id");
+        }
+        if ((mask & USER_ID) != 0) {
+            where.add("h.userEntity.id = :userId");
+        }
+        if ((mask & START_DATE) != 0) {
+            where.add("h.startDate >= :startDate");
+        }
+        if ((mask & END_DATE) != 0) {
+            where.add("h.endDate <= :endDate");
+        }
+        if ((mask & STATUS) != 0) {
+            where.add("h.status = :status");
+        }
+        if ((mask & AFTER) != 0) {
+            where.add("(h.startDate > :afterStartDate or (h.startDate = :afterStartDate and h.id > :afterId))");
+        }
+        return new String[]{SELECT + where + ORDER, COUNT + where};
     }
 }
@@ -1,21 +1,72 @@
 package com.app.persistence.specification.impl;
 
-import com.app.persistence.entity.UserEntity;
+import com.app.controller.dto.user.UserDto;
+import com.app.persistence.specification.FilterQuery;
 import com.app.persistence.specification.FilterSpecification;
 import com.app.persistence.specification.model.UserSpecification;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
- * Implementation of {@link FilterSpecification} for filtering {@link UserEntity} instances
- * dynamically based on the provided {@link UserSpecification} criteria.
+ * Implementation of {@link FilterSpecification} selecting users as {@link UserDto} projections
+ * based on the provided {@link UserSpecification} criteria.
+ * <p>
+ * The present criteria and the sort form a key; the JPQL of every key is built on first use and cached, and
+ * the criteria values are bound as parameters. Password hashes and other columns not in {@link UserDto} are
+ * never read.
+ * </p>
+ * <p>
+ * The text columns users can be sorted by are nullable. Users without a value sort as if it was the smallest
+ * one, which is the order MySQL uses anyway, and the keyset predicate treats them the same way, so no user is
+ * skipped when a page ends on or before them.
+ * </p>
  */
 @Component
-public class UserFilterSpecificationImpl implements FilterSpecification<UserEntity, UserSpecification> {
+public class UserFilterSpecificationImpl implements FilterSpecification<UserDto, UserSpecification> {
+
+    /**
+     * Fields users can be sorted by; all of them are part of {@link UserDto}.
+     */
+    private static final List<String> SORT_FIELDS =
+            List.of("id", "name", "surname", "username", "email", "age", "holidaysHours");
+
+    /**
+     * Sort fields whose columns are nullable.
+     */
+    private static final Set<String> NULLABLE_SORT_FIELDS = Set.of("name", "surname", "username", "email");
+
+    private static final int NAME = 1;
+    private static final int SURNAME = 1 << 1;
+    private static final int USERNAME = 1 << 2;
+    private static final int EMAIL = 1 << 3;
+    private static final int MIN_AGE = 1 << 4;
+    private static final int MAX_AGE = 1 << 5;
+    private static final int MIN_HOLIDAY_HOURS = 1 << 6;
+    private static final int MAX_HOLIDAY_HOURS = 1 << 7;
+    private static final int AFTER = 1 << 8;
+    private static final int DESCENDING = 1 << 9;
+    private static final int AFTER_NULL = 1 << 10;
+    private static final int SORT_SHIFT = 11;
+
+    private static final String SELECT = """
+            select new com.app.controller.dto.user.UserDto(
+            u.id, u.name, u.surname, u.username, u.email, u.age, u.holidaysHours, u.role)
+            from UserEntity u""";
+    private static final String COUNT = "select count(u) from UserEntity u";
 
     /**
-     * Builds a dynamic JPA {@link Specification} for {@link UserEntity} based on
-     * the non-null and non-empty fields of the given {@link UserSpecification}.
+     * JPQL of both queries by key.
+     */
+    private final Map<Integer, String[]> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Builds the filter query for the non-null and non-empty fields of the given {@link UserSpecification}.
      *
      * <p>Supports filtering by:
      * <ul>
@@ -27,72 +78,177 @@ public class UserFilterSpecificationImpl implements FilterSpecification<UserEnti
      *   <li>maxAge - users with age less than or equal to this value</li>
      *   <li>minHolidayHours - users with holidaysHours greater than or equal to this value</li>
      *   <li>maxHolidayHours - users with holidaysHours less than or equal to this value</li>
+     *   <li>after - users ordered after the cursor by the sort field and ID</li>
      * </ul>
+     * Users are ordered by the sort field and then by ID, both in the requested direction.
      *
      * @param userSpecification the filter criteria to apply
-     * @return a JPA {@link Specification} representing the combined filter conditions
+     * @return the {@link FilterQuery} selecting the matching users
+     * @throws IllegalArgumentException if the sort field is unknown or the cursor does not match the sort
      */
-    public Specification<UserEntity> dynamicFilter(UserSpecification userSpecification) {
-        return ((root, query, cb) -> {
-            var p = cb.conjunction();
-
-            if (userSpecification.name() != null && !userSpecification.name().isEmpty()) {
-                p = cb.and(
-                        p,
-                        cb.equal(root.get("name"), userSpecification.name())
-                );
-            }
+    @Override
+    public FilterQuery<UserDto> dynamicFilter(UserSpecification userSpecification) {
+        var sortIndex = SORT_FIELDS.indexOf(userSpecification.sort());
+        if (sortIndex < 0) {
+            throw new IllegalArgumentException("Users cannot be sorted by %s.".formatted(userSpecification.sort()));
+        }
+        var mask = (sortIndex << SORT_SHIFT) | (userSpecification.descending() ? DESCENDING : 0);
+        var parameters = new HashMap<String, Object>();
 
-            if (userSpecification.surname() != null && !userSpecification.surname().isEmpty()) {
-                p = cb.and(
-                        p,
-                        cb.equal(root.get("surname"), userSpecification.surname())
-                );
+        if (userSpecification.name() != null && !userSpecification.name().isEmpty()) {
+            mask |= NAME;
+            parameters.put("name", userSpecification.name());
+        }
+        if (userSpecification.surname() != null && !userSpecification.surname().isEmpty()) {
+            mask |= SURNAME;
+            parameters.put("surname", userSpecification.surname());
+        }
+        if (userSpecification.username() != null && !userSpecification.username().isEmpty()) {
+            mask |= USERNAME;
+            parameters.put("username", userSpecification.username());
+        }
+        if (userSpecification.email() != null && !userSpecification.email().isEmpty()) {
+            mask |= EMAIL;
+            parameters.put("email", userSpecification.email());
+        }
+        if (userSpecification.minAge() != null) {
+            mask |= MIN_AGE;
+            parameters.put("minAge", userSpecification.minAge());
+        }
+        if (userSpecification.maxAge() != null) {
+            mask |= MAX_AGE;
+            parameters.put("maxAge", userSpecification.maxAge());
+        }
+        if (userSpecification.minHolidayHours() != null) {
+            mask |= MIN_HOLIDAY_HOURS;
+            parameters.put("minHolidayHours", userSpecification.minHolidayHours());
+        }
+        if (userSpecification.maxHolidayHours() != null) {
+            mask |= MAX_HOLIDAY_HOURS;
+            parameters.put("maxHolidayHours", userSpecification.maxHolidayHours());
+        }
+        if (userSpecification.after() != null) {
+            var after = userSpecification.after();
+            if (!after.sort().equals(userSpecification.sort()) || after.descending() != userSpecification.descending()) {
+                throw new IllegalArgumentException("Cursor does not match the sort.");
             }
-
-            if (userSpecification.username() != null && !userSpecification.username().isEmpty()) {
-                p = cb.and(
-                        p,
-                        cb.equal(root.get("username"), userSpecification.username())
-                );
+            mask |= AFTER;
+            parameters.put("afterId", after.id());
+            if (after.value() == null && NULLABLE_SORT_FIELDS.contains(after.sort())) {
+                mask |= AFTER_NULL;
+            } else if (sortIndex != 0) {
+                parameters.put("afterValue", parse(after.value(), after.sort()));
             }
+        }
 
-            if (userSpecification.email() != null && !userSpecification.email().isEmpty()) {
-                p = cb.and(
-                        p,
-                        cb.equal(root.get("email"), userSpecification.email())
-                );
-            }
+        var template = templates.computeIfAbsent(mask, UserFilterSpecificationImpl::compile);
+        return new FilterQuery<>(UserDto.class, template[0], template[1], parameters);
+    }
 
-            if (userSpecification.minAge() != null) {
-                p = cb.and(
-                        p,
-                        cb.greaterThanOrEqualTo(root.get("age"), userSpecification.minAge())
-                );
-            }
+    /**
+     * Builds the JPQL of the queries for one key.
+     *
+     * @param mask the present criteria and the sort
+     * @return the selecting and the counting JPQL
+     */
+    private static String[] compile(int mask) {
+        var field = SORT_FIELDS.get(mask >>> SORT_SHIFT);
+        var sort = "u." + field;
+        var nullable = NULLABLE_SORT_FIELDS.contains(field);
+        var descending = (mask & DESCENDING) != 0;
+        var after = descending ? " < " : " > ";
+        var direction = descending ? " desc" : " asc";
 
-            if (userSpecification.maxAge() != null) {
-                p = cb.and(
-                        p,
-                        cb.lessThanOrEqualTo(root.get("age"), userSpecification.maxAge())
-                );
-            }
+        var where = new StringJoiner(" and ", " where ", "").setEmptyValue("");
+        if ((mask & NAME) != 0) {
+            where.add("u.name = :name");
+        }
+        if ((mask & SURNAME) != 0) {
+            where.add("u.surname = :surname");
+        }
+        if ((mask & USERNAME) != 0) {
+            where.add("u.username = :username");
+        }
+        if ((mask & EMAIL) != 0) {
+            where.add("u.email = :email");
+        }
+        if ((mask & MIN_AGE) != 0) {
+            where.add("u.age >= :minAge");
+        }
+        if ((mask & MAX_AGE) != 0) {
+            where.add("u.age <= :maxAge");
+        }
+        if ((mask & MIN_HOLIDAY_HOURS) != 0) {
+            where.add("u.holidaysHours >= :minHolidayHours");
+        }
+        if ((mask & MAX_HOLIDAY_HOURS) != 0) {
+            where.add("u.holidaysHours <= :maxHolidayHours");
+        }
+        if ((mask & AFTER) != 0 && nullable) {
+            where.add(nullableAfter(sort, after, (mask & AFTER_NULL) != 0));
+        } else if ((mask & AFTER) != 0) {
+            where.add("u.id".equals(sort)
+                    ? "u.id" + after + ":afterId"
+                    : "(" + sort + after + ":afterValue or (" + sort + " = :afterValue and u.id" + after + ":afterId))");
+        }
 
-            if (userSpecification.minHolidayHours() != null) {
-                p = cb.and(
-                        p,
-                        cb.greaterThanOrEqualTo(root.get("holidaysHours"), userSpecification.minHolidayHours())
-                );
-            }
+        var order = "u.id".equals(sort)
+                ? " order by u.id" + direction
+                : " order by " + sort + direction + nulls(nullable, descending) + ", u.id" + direction;
+        return new String[]{SELECT + where + order, COUNT + where};
+    }
 
-            if (userSpecification.maxHolidayHours() != null) {
-                p = cb.and(
-                        p,
-                        cb.lessThanOrEqualTo(root.get("holidaysHours"), userSpecification.maxHolidayHours())
-                );
-            }
+    /**
+     * Builds the keyset predicate of a nullable sort field, selecting the users ordered after the cursor when
+     * users without a value come first in ascending and last in descending order.
+     *
+     * @param sort      the sort field
+     * @param after     the comparison operator of the sort direction
+     * @param afterNull whether the user of the cursor has no value of the sort field
+     * @return the predicate
+     */
+    private static String nullableAfter(String sort, String after, boolean afterNull) {
+        var descending = after.equals(" < ");
+        var tieBreak = sort + " is null and u.id" + after + ":afterId";
+        if (afterNull) {
+            return descending ? "(" + tieBreak + ")" : "(" + sort + " is not null or (" + tieBreak + "))";
+        }
+        var keyset = sort + after + ":afterValue or (" + sort + " = :afterValue and u.id" + after + ":afterId)";
+        return descending ? "(" + keyset + " or " + sort + " is null)" : "(" + keyset + ")";
+    }
 
-            return p;
-        });
+    /**
+     * Returns the null precedence of the order by clause. It matches the order MySQL uses without one, so
+     * Hibernate leaves it out of the SQL there and the sort can still use an index.
+     *
+     * @param nullable   whether the sort field is nullable
+     * @param descending whether users are sorted in descending order
+     * @return the null precedence, empty for a field that is never null
+     */
+    private static String nulls(boolean nullable, boolean descending) {
+        if (!nullable) {
+            return "";
+        }
+        return descending ? " nulls last" : " nulls first";
+    }
+
+    /**
+     * Converts a cursor value back to the type of the field it was taken from.
+     *
+     * @param value the value as a string
+     * @param sort  the name of the field
+     * @return the typed value
+     * @throws IllegalArgumentException if the value does not match the type
+     */
+    private static Object parse(String value, String sort) {
+        try {
+            return switch (sort) {
+                case "age" -> Integer.valueOf(value);
+                case "holidaysHours" -> Long.valueOf(value);
+                default -> value;
+            };
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
     }
 }
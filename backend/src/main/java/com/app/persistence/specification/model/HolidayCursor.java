@@ -0,0 +1,53 @@
+package com.app.persistence.specification.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the list of holidays ordered by start date and ID, used for keyset pagination.
+ * <p>
+ * A page following the cursor contains the holidays starting after {@code startDate}, or starting at
+ * {@code startDate} with an ID greater than {@code id}. Clients receive the cursor as an opaque string.
+ * </p>
+ *
+ * @param startDate the start date of the last holiday of the previous page
+ * @param id        the ID of the last holiday of the previous page
+ */
+public record HolidayCursor(LocalDateTime startDate, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encodes this cursor into an opaque, URL-safe string.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((startDate + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously returned by {@link #encode()}.
+     *
+     * @param cursor the encoded cursor, may be null
+     * @return the decoded cursor, or null if no cursor was given
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static HolidayCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            var value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separator = value.lastIndexOf(SEPARATOR);
+            return new HolidayCursor(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+}
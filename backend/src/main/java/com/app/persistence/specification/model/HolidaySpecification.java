@@ -7,7 +7,7 @@ import java.time.LocalDateTime;
  * Specification model used to filter {@link com.app.persistence.entity.HolidayEntity}
  * entities in a dynamic and type-safe way.
  *
- * <p>This record is typically used in conjunction with {@code Specification<HolidayEntity>}
+ * <p>This record is typically used in conjunction with {@link com.app.persistence.specification.FilterSpecification}
  * to construct dynamic queries based on the provided fields.</p>
  *
  * @param id         the unique identifier of the holiday (optional filter)
@@ -15,11 +15,23 @@ import java.time.LocalDateTime;
  * @param startDate  the start date for filtering holidays that start after or on this date
  * @param endDate    the end date for filtering holidays that end before or on this date
  * @param status     the status of the holiday (e.g., APPROVED, PENDING, REJECTED)
+ * @param after      the position after which holidays ordered by start date and ID are returned
  */
 public record HolidaySpecification(
         Long id,
         Long userId,
         LocalDateTime startDate,
         LocalDateTime endDate,
-        Status status
-) {}
+        Status status,
+        HolidayCursor after
+) {
+
+    /**
+     * Returns this specification without the pagination position, matching every page.
+     *
+     * @return the specification without the cursor
+     */
+    public HolidaySpecification withoutCursor() {
+        return new HolidaySpecification(id, userId, startDate, endDate, status, null);
+    }
+}
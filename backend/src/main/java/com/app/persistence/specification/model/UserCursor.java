@@ -0,0 +1,57 @@
+package com.app.persistence.specification.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a sorted list of users, used for keyset pagination.
+ * <p>
+ * Users are ordered by the sort field and then by ID in the same direction. A page following the cursor
+ * contains the users ordered after the one with the given sort field value and ID. Users without a value of
+ * the sort field come first in ascending and last in descending order. Clients receive the cursor as an opaque
+ * string.
+ * </p>
+ *
+ * @param sort       the name of the field the users are sorted by
+ * @param descending whether the users are sorted in descending order
+ * @param value      the sort field value of the last user of the previous page, as a string, or null if it has none
+ * @param id         the ID of the last user of the previous page
+ */
+public record UserCursor(String sort, boolean descending, String value, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encodes this cursor into an opaque, URL-safe string.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        var plain = String.join(SEPARATOR, sort, descending ? "D" : "A", String.valueOf(id));
+        // A missing value leaves out the last part, so it stays distinct from an empty string
+        if (value != null) {
+            plain += SEPARATOR + value;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously returned by {@link #encode()}.
+     *
+     * @param cursor the encoded cursor, may be null
+     * @return the decoded cursor, or null if no cursor was given
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static UserCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            var parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 4);
+            return new UserCursor(
+                    parts[0], "D".equals(parts[1]), parts.length > 3 ? parts[3] : null, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+}
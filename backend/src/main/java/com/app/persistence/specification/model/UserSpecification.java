@@ -4,8 +4,8 @@ package com.app.persistence.specification.model;
  * Specification model used to filter {@link com.app.persistence.entity.UserEntity}
  * entities based on dynamic criteria.
  *
- * <p>This record is intended to be used in conjunction with {@code Specification<UserEntity>}
- * to build type-safe, flexible queries in a declarative way.</p>
+ * <p>This record is intended to be used in conjunction with
+ * {@link com.app.persistence.specification.FilterSpecification} to build the filter query.</p>
  *
  * @param name              the name of the user to filter by (exact match, optional)
  * @param surname           the surname of the user to filter by (exact match, optional)
@@ -15,6 +15,9 @@ package com.app.persistence.specification.model;
  * @param maxAge            the maximum age of the user (inclusive, optional)
  * @param minHolidayHours   the minimum amount of holiday hours (inclusive, optional)
  * @param maxHolidayHours   the maximum amount of holiday hours (inclusive, optional)
+ * @param sort              the name of the field users are sorted by
+ * @param descending        whether users are sorted in descending order
+ * @param after             the position after which sorted users are returned (optional)
  */
 public record UserSpecification(
         String name,
@@ -24,5 +27,19 @@ public record UserSpecification(
         Integer minAge,
         Integer maxAge,
         Long minHolidayHours,
-        Long maxHolidayHours
-) {}
+        Long maxHolidayHours,
+        String sort,
+        boolean descending,
+        UserCursor after
+) {
+
+    /**
+     * Returns this specification without the pagination position, matching every page.
+     *
+     * @return the specification without the cursor
+     */
+    public UserSpecification withoutCursor() {
+        return new UserSpecification(
+                name, surname, username, email, minAge, maxAge, minHolidayHours, maxHolidayHours, sort, descending, null);
+    }
+}
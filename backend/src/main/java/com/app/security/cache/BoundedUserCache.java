@@ -0,0 +1,184 @@
+package com.app.security.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded {@link UserCache} for the details loaded during login.
+ * <p>
+ * Entries are invalidated by {@link com.app.listener.UserCacheEvictionListener} whenever the password, activation,
+ * role or deletion state of a user changes, and additionally expire after a configured time-to-live as a safety net.
+ * The cache stores and returns copies, because Spring Security erases the credentials of the returned principal
+ * after a successful authentication.
+ * </p>
+ * <p>
+ * A login that loaded the user before a change committed must not put its stale copy back after the change
+ * has evicted it. Every eviction therefore advances a generation; the generation is remembered per thread when
+ * the login looks the user up, and the loaded details are cached only if no eviction happened since.
+ * </p>
+ * <p>
+ * Evictions are local to this node. On other nodes a changed user is reloaded at the latest when the entry
+ * expires, so the time-to-live bounds how long an old password or a deactivated account can still log in there.
+ * </p>
+ * <p>
+ * Hits, misses, evictions and the current size are published as Micrometer meters under {@code users.cache.*}.
+ * </p>
+ */
+@Component
+public class BoundedUserCache implements UserCache {
+
+    /**
+     * Fraction of the maximum size the cache is trimmed down to once it is full,
+     * so eviction is amortized over many inserts.
+     */
+    private static final double TRIM_FACTOR = 0.9;
+
+    private final int maxSize;
+    private final long timeToLiveMs;
+    private final Map<String, CachedUser> cache = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Advanced by every explicit eviction.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Generation seen by the last lookup of the current thread.
+     */
+    private final ThreadLocal<Long> lookupGeneration = new ThreadLocal<>();
+
+    /**
+     * Cached user details together with the moment they stop being valid.
+     *
+     * @param user      the cached user details
+     * @param expiresAt the expiration time in epoch milliseconds
+     */
+    private record CachedUser(UserDetails user, long expiresAt) {
+    }
+
+    /**
+     * Constructs a new {@link BoundedUserCache} and registers its meters.
+     *
+     * @param meterRegistry the registry the cache statistics are published to
+     * @param maxSize       the maximum number of cached users
+     * @param timeToLiveMs  the time after which a cached user is loaded again
+     */
+    public BoundedUserCache(
+            MeterRegistry meterRegistry,
+            @Value("${users.cache.max-size}") int maxSize,
+            @Value("${users.cache.ttl-ms}") long timeToLiveMs) {
+        this.maxSize = maxSize;
+        this.timeToLiveMs = timeToLiveMs;
+
+        FunctionCounter.builder("users.cache.hits", hits, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("users.cache.misses", misses, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("users.cache.evictions", evictions, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("users.cache.size", cache, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Returns a copy of the cached user details and remembers the current generation for a following
+     * {@link #putUserInCache(UserDetails)} of this thread.
+     *
+     * @param username the username
+     * @return the cached user details, or {@code null} if the user is not cached or the entry expired
+     */
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        lookupGeneration.set(generation.get());
+
+        var cached = cache.get(username);
+        if (cached != null) {
+            if (cached.expiresAt() > System.currentTimeMillis()) {
+                hits.increment();
+                return User.withUserDetails(cached.user()).build();
+            }
+            if (cache.remove(username, cached)) {
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Stores a copy of the user details, unless a user was evicted since this thread looked the user up.
+     * <p>
+     * An eviction racing with the put either is seen by the check after the put, which then withdraws the
+     * entry, or removes the entry itself.
+     * </p>
+     *
+     * @param user the loaded user details
+     */
+    @Override
+    public void putUserInCache(UserDetails user) {
+        var seen = lookupGeneration.get();
+        lookupGeneration.remove();
+        if (seen == null || seen != generation.get()) {
+            return;
+        }
+
+        var now = System.currentTimeMillis();
+        if (cache.size() >= maxSize) {
+            trim(now);
+        }
+        var cached = new CachedUser(User.withUserDetails(user).build(), now + timeToLiveMs);
+        cache.put(user.getUsername(), cached);
+
+        if (seen != generation.get()) {
+            cache.remove(user.getUsername(), cached);
+        }
+    }
+
+    /**
+     * Removes the user from the cache.
+     *
+     * @param username the username
+     */
+    @Override
+    public void removeUserFromCache(String username) {
+        generation.incrementAndGet();
+        if (username != null && cache.remove(username) != null) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Removes expired entries and, if the cache is still too large, arbitrary entries
+     * until it is below {@link #TRIM_FACTOR} of its maximum size.
+     *
+     * @param now the current time in epoch milliseconds
+     */
+    private void trim(long now) {
+        cache.entrySet().removeIf(entry -> {
+            var expired = entry.getValue().expiresAt() <= now;
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+
+        var target = (int) (maxSize * TRIM_FACTOR);
+        var iterator = cache.keySet().iterator();
+        while (cache.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.app.security.cache;
+
+import com.app.security.keys.TokenKeyRing;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded cache of already verified JWT {@link Claims}.
+ * <p>
+ * A single access token is read several times while one request is handled (expiration, subject, role).
+ * Instead of building a new parser and verifying the signature every time, the claims of a token are verified
+ * once by a prebuilt {@link JwtParser} and kept until the token's {@code exp}. Entries are keyed by the SHA-256
+ * hash of the token, so raw tokens are never retained in memory.
+ * </p>
+ * <p>
+ * Hits, misses, evictions and the current size are published as Micrometer meters under
+ * {@code tokens.claims.cache.*}.
+ * </p>
+ */
+@Component
+public class VerifiedClaimsCache {
+
+    /**
+     * Fraction of the maximum size the cache is trimmed down to once it is full,
+     * so eviction is amortized over many inserts.
+     */
+    private static final double TRIM_FACTOR = 0.9;
+
+    private final JwtParser jwtParser;
+    private final int maxSize;
+    private final Map<String, CachedClaims> cache = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Verified claims together with the moment they stop being valid.
+     *
+     * @param claims    the verified claims
+     * @param expiresAt the token expiration time in epoch milliseconds
+     */
+    private record CachedClaims(Claims claims, long expiresAt) {
+    }
+
+    /**
+     * Constructs a new {@link VerifiedClaimsCache} and registers its meters.
+     *
+     * @param tokenKeyRing  the key ring locating the key that verifies a token's signature
+     * @param meterRegistry the registry the cache statistics are published to
+     * @param maxSize       the maximum number of cached tokens
+     */
+    public VerifiedClaimsCache(
+            TokenKeyRing tokenKeyRing,
+            MeterRegistry meterRegistry,
+            @Value("${tokens.cache.max-size}") int maxSize) {
+        this.jwtParser = Jwts.parser().keyLocator(tokenKeyRing).build();
+        this.maxSize = maxSize;
+
+        FunctionCounter.builder("tokens.claims.cache.hits", hits, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("tokens.claims.cache.misses", misses, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("tokens.claims.cache.evictions", evictions, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("tokens.claims.cache.size", cache, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Returns the verified claims of the given token.
+     * <p>
+     * The signature and expiration are checked only on the first call for a token; later calls return
+     * the cached claims until the token expires.
+     * </p>
+     *
+     * @param token the compact JWT
+     * @return the verified claims
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, badly signed or expired
+     */
+    public Claims claims(String token) {
+        var key = hash(token);
+        var now = System.currentTimeMillis();
+
+        var cached = cache.get(key);
+        if (cached != null) {
+            if (cached.expiresAt() > now) {
+                hits.increment();
+                return cached.claims();
+            }
+            if (cache.remove(key, cached)) {
+                evictions.increment();
+            }
+        }
+
+        misses.increment();
+        var claims = jwtParser.parseSignedClaims(token).getPayload();
+
+        if (claims.getExpiration() != null) {
+            if (cache.size() >= maxSize) {
+                trim(now);
+            }
+            cache.put(key, new CachedClaims(claims, claims.getExpiration().getTime()));
+        }
+        return claims;
+    }
+
+    /**
+     * Removes expired entries and, if the cache is still too large, arbitrary entries
+     * until it is below {@link #TRIM_FACTOR} of its maximum size.
+     *
+     * @param now the current time in epoch milliseconds
+     */
+    private void trim(long now) {
+        cache.entrySet().removeIf(entry -> {
+            var expired = entry.getValue().expiresAt() <= now;
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+
+        var target = (int) (maxSize * TRIM_FACTOR);
+        var iterator = cache.keySet().iterator();
+        while (cache.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Hashes the token so it can be used as a compact cache key.
+     *
+     * @param token the compact JWT
+     * @return the Base64 encoded SHA-256 hash of the token
+     */
+    private static String hash(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Returns the number of cache hits since startup.
+     *
+     * @return the hit count
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of cache misses since startup.
+     *
+     * @return the miss count
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of entries evicted because they expired or the cache was full.
+     *
+     * @return the eviction count
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+}
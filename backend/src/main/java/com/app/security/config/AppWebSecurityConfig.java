@@ -5,6 +5,7 @@ import com.app.security.filter.AppAuthenticationFilter;
 import com.app.security.filter.AppAuthorizationFilter;
 import com.app.security.service.TokenService;
 import com.app.security.service.impl.AppUserDetailsServiceImpl;
+import com.app.security.throttle.LoginThrottle;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.Jwts;
 import lombok.RequiredArgsConstructor;
@@ -13,11 +14,13 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
-import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
@@ -27,7 +30,6 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
-import javax.crypto.SecretKey;
 import java.util.List;
 
 /**
@@ -44,25 +46,24 @@ public class AppWebSecurityConfig {
     private final AppUserDetailsServiceImpl appUserDetailsService;
     private final PasswordEncoder passwordEncoder;
     private final TokenService tokenService;
+    private final LoginThrottle loginThrottle;
+    private final UserCache userCache;
 
     /**
      * Configures the main security filter chain.
      *
-     * @param http      the HttpSecurity object to configure
-     * @param secretKey the secret key used for signing JWT tokens
+     * @param http the HttpSecurity object to configure
      * @return the configured SecurityFilterChain
      * @throws Exception in case of any configuration error
      */
     @Bean
-    public SecurityFilterChain configure(HttpSecurity http, SecretKey secretKey) throws Exception {
-        var authenticationManagerBuilder = http
-                .getSharedObject(AuthenticationManagerBuilder.class);
+    public SecurityFilterChain configure(HttpSecurity http) throws Exception {
+        var authenticationProvider = new DaoAuthenticationProvider(passwordEncoder);
+        authenticationProvider.setUserDetailsService(appUserDetailsService);
+        authenticationProvider.setUserDetailsPasswordService(appUserDetailsService);
+        authenticationProvider.setUserCache(userCache);
 
-        authenticationManagerBuilder
-                .userDetailsService(appUserDetailsService)
-                .passwordEncoder(passwordEncoder);
-
-        var authenticationManager = authenticationManagerBuilder.build();
+        var authenticationManager = new ProviderManager(authenticationProvider);
 
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -78,31 +79,20 @@ public class AppWebSecurityConfig {
                 })
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers(HttpMethod.GET,
-                                "/v3/api-docs/**",
-                                "/swagger-ui/**",
-                                "/swagger-ui.html",
-                                "/swagger-resources/**",
-                                "/swagger-resources/configuration/ui",
-                                "/swagger-resources/configuration/security",
-                                "/webjars/**",
-                                "/favicon.ico")
-                        .permitAll()
-                        .requestMatchers(HttpMethod.POST, "/users", "/login", "/users/refresh")
-                        .permitAll()
-                        .requestMatchers(HttpMethod.PATCH, "/users", "/users/lost", "/users/new")
+                        .requestMatchers(HttpMethod.GET, PublicEndpoints.GET)
                         .permitAll()
-                        .requestMatchers(HttpMethod.GET, "/users/refresh")
+                        .requestMatchers(HttpMethod.POST, PublicEndpoints.POST)
                         .permitAll()
-                        .requestMatchers(HttpMethod.POST, "/users/refresh")
+                        .requestMatchers(HttpMethod.PATCH, PublicEndpoints.PATCH)
                         .permitAll()
                         .requestMatchers("/users/in/**").hasAnyRole("WORKER", "ADMIN")
                         .requestMatchers(HttpMethod.POST, "/holidays").hasAnyRole("WORKER", "ADMIN")
                         .requestMatchers(HttpMethod.GET, "/holidays").hasAnyRole("WORKER", "ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/holidays/balance").hasAnyRole("WORKER", "ADMIN")
                         .requestMatchers("/**").hasAnyRole("ADMIN")
                         .anyRequest()
                         .authenticated())
-                .addFilter(new AppAuthenticationFilter(tokenService, authenticationManager))
+                .addFilter(new AppAuthenticationFilter(tokenService, authenticationManager, loginThrottle))
                 .addFilterBefore(new AppAuthorizationFilter(authenticationManager, tokenService),
                         UsernamePasswordAuthenticationFilter.class)
                 .authenticationManager(authenticationManager)
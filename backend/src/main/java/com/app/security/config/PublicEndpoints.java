@@ -0,0 +1,97 @@
+package com.app.security.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Endpoints reachable without authentication.
+ * <p>
+ * The same constants configure the permit rules in {@link AppWebSecurityConfig} and are compiled once into
+ * per-method lookup tables used by {@link com.app.security.filter.AppAuthorizationFilter}, so both places agree
+ * on which requests skip token parsing. Patterns are either exact paths or {@code /**} suffixed prefixes.
+ * Matching a request is a map lookup plus a short prefix scan and allocates nothing.
+ * </p>
+ */
+public final class PublicEndpoints {
+
+    /**
+     * Public GET endpoints, mainly the API documentation.
+     */
+    public static final String[] GET = {
+            "/v3/api-docs/**",
+            "/swagger-ui/**",
+            "/swagger-ui.html",
+            "/swagger-resources/**",
+            "/webjars/**",
+            "/favicon.ico",
+            "/users/refresh"
+    };
+
+    /**
+     * Public POST endpoints: registration, login and token refresh.
+     */
+    public static final String[] POST = {"/users", "/login", "/users/refresh"};
+
+    /**
+     * Public PATCH endpoints: activation and password recovery.
+     */
+    public static final String[] PATCH = {"/users", "/users/lost", "/users/new"};
+
+    private static final String ANY_SUFFIX = "/**";
+
+    private static final Map<String, CompiledPatterns> PATTERNS = Map.of(
+            HttpMethod.GET.name(), CompiledPatterns.of(GET),
+            HttpMethod.POST.name(), CompiledPatterns.of(POST),
+            HttpMethod.PATCH.name(), CompiledPatterns.of(PATCH));
+
+    private PublicEndpoints() {
+    }
+
+    /**
+     * Exact paths and path prefixes of one HTTP method.
+     *
+     * @param exactPaths the paths matched exactly
+     * @param prefixes   the prefixes matching themselves and every path below them
+     */
+    private record CompiledPatterns(Set<String> exactPaths, String[] prefixes) {
+
+        private static CompiledPatterns of(String[] patterns) {
+            return new CompiledPatterns(
+                    Set.of(Arrays.stream(patterns)
+                            .filter(pattern -> !pattern.endsWith(ANY_SUFFIX))
+                            .toArray(String[]::new)),
+                    Arrays.stream(patterns)
+                            .filter(pattern -> pattern.endsWith(ANY_SUFFIX))
+                            .map(pattern -> pattern.substring(0, pattern.length() - ANY_SUFFIX.length()))
+                            .toArray(String[]::new));
+        }
+
+        private boolean matches(String path) {
+            if (exactPaths.contains(path)) {
+                return true;
+            }
+            for (var prefix : prefixes) {
+                if (path.startsWith(prefix)
+                        && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether the request targets a public endpoint.
+     *
+     * @param request the HTTP request
+     * @return {@code true} if the request does not need authentication
+     */
+    public static boolean isPublic(HttpServletRequest request) {
+        var patterns = PATTERNS.get(request.getMethod());
+        return patterns != null && patterns.matches(request.getRequestURI());
+    }
+}
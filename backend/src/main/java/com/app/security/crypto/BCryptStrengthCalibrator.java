@@ -0,0 +1,67 @@
+package com.app.security.crypto;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Picks the BCrypt strength (log2 of the number of rounds) matching a per-hash latency budget on the current machine.
+ * <p>
+ * The time of a single hash is measured at the minimum strength. Every additional strength point doubles the work,
+ * so the highest strength whose extrapolated time still fits in the budget is chosen. This keeps startup short,
+ * because the expensive strengths are never actually hashed.
+ * </p>
+ */
+@Slf4j
+public final class BCryptStrengthCalibrator {
+
+    /**
+     * Number of measured hashes; the median is used to filter out JIT and scheduling noise.
+     */
+    private static final int SAMPLES = 5;
+
+    private static final String SAMPLE_PASSWORD = "Calibration-Password-1!";
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    /**
+     * Returns the highest BCrypt strength whose hashing time fits in the target latency.
+     *
+     * @param targetLatency the per-hash latency budget
+     * @param minStrength   the lowest strength allowed, returned even if it exceeds the budget
+     * @param maxStrength   the highest strength allowed
+     * @return the calibrated strength within {@code [minStrength, maxStrength]}
+     * @throws IllegalArgumentException if the bounds are outside the range supported by BCrypt
+     */
+    public static int calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        if (minStrength < 4 || maxStrength > 31 || minStrength > maxStrength) {
+            throw new IllegalArgumentException("BCrypt strength bounds must satisfy 4 <= min <= max <= 31");
+        }
+
+        var encoder = new BCryptPasswordEncoder(minStrength);
+        encoder.encode(SAMPLE_PASSWORD);
+
+        var samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            var start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        var baseNanos = Math.max(samples[SAMPLES / 2], 1);
+
+        var strength = minStrength;
+        var estimatedNanos = baseNanos;
+        while (strength < maxStrength && estimatedNanos * 2 <= targetLatency.toNanos()) {
+            strength++;
+            estimatedNanos *= 2;
+        }
+
+        log.info("BCrypt calibrated to strength {} (~{} ms per hash, target {} ms, {} ms at strength {})",
+                strength, estimatedNanos / 1_000_000, targetLatency.toMillis(), baseNanos / 1_000_000, minStrength);
+        return strength;
+    }
+}
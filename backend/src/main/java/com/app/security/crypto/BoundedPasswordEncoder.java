@@ -0,0 +1,163 @@
+package com.app.security.crypto;
+
+import com.app.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link PasswordEncoder} decorator running hashing and verification on a dedicated, bounded thread pool.
+ * <p>
+ * Password hashing is deliberately CPU-heavy. Running it on the request threads lets a burst of logins or
+ * registrations starve every other endpoint. This encoder confines the work to a fixed number of threads with
+ * a limited queue; when both are full the operation is rejected immediately with a
+ * {@link TooManyRequestsException} instead of piling up.
+ * </p>
+ * <p>
+ * The time spent waiting in the queue and the time spent hashing are recorded separately as the
+ * {@code password.hashing.queue.wait} and {@code password.hashing.duration} timers.
+ * </p>
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeQueueWait;
+    private final Timer matchesQueueWait;
+    private final Timer encodeDuration;
+    private final Timer matchesDuration;
+    private final Counter rejected;
+
+    /**
+     * Constructs a new {@link BoundedPasswordEncoder} and registers its meters.
+     *
+     * @param delegate      the encoder doing the actual hashing
+     * @param poolSize      the number of threads hashing passwords
+     * @param queueCapacity the number of operations allowed to wait for a free thread
+     * @param meterRegistry the registry the hashing statistics are published to
+     */
+    public BoundedPasswordEncoder(
+            PasswordEncoder delegate, int poolSize, int queueCapacity, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+
+        var threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    var thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeQueueWait = queueWaitTimer("encode", meterRegistry);
+        this.matchesQueueWait = queueWaitTimer("matches", meterRegistry);
+        this.encodeDuration = durationTimer("encode", meterRegistry);
+        this.matchesDuration = durationTimer("matches", meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected").register(meterRegistry);
+
+        Gauge.builder("password.hashing.queue.size", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hashes the raw password on the hashing pool.
+     *
+     * @param rawPassword the password to hash
+     * @return the encoded password
+     * @throws TooManyRequestsException if the hashing pool is saturated
+     */
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword), encodeQueueWait, encodeDuration);
+    }
+
+    /**
+     * Verifies the raw password against the encoded one on the hashing pool.
+     *
+     * @param rawPassword     the password to verify
+     * @param encodedPassword the stored encoded password
+     * @return {@code true} if the passwords match
+     * @throws TooManyRequestsException if the hashing pool is saturated
+     */
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword), matchesQueueWait, matchesDuration);
+    }
+
+    /**
+     * Checks whether the encoded password should be re-hashed. Does not hash, so it runs on the caller's thread.
+     *
+     * @param encodedPassword the stored encoded password
+     * @return {@code true} if the password should be encoded again
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Stops the hashing pool. Called by Spring when the application context is closed.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Runs the operation on the hashing pool and waits for its result.
+     *
+     * @param operation the hashing operation
+     * @param queueWait the timer recording the time spent in the queue
+     * @param duration  the timer recording the time spent hashing
+     * @param <T>       the result type
+     * @return the result of the operation
+     */
+    private <T> T execute(Callable<T> operation, Timer queueWait, Timer duration) {
+        var submittedAt = System.nanoTime();
+        Future<T> future;
+
+        try {
+            future = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return duration.recordCallable(operation);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many password operations in progress, try again later.",
+                    RETRY_AFTER_SECONDS);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static Timer queueWaitTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("password.hashing.queue.wait").tag("operation", operation).register(meterRegistry);
+    }
+
+    private static Timer durationTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("password.hashing.duration").tag("operation", operation).register(meterRegistry);
+    }
+}
@@ -0,0 +1,30 @@
+package com.app.security.dto;
+
+import com.app.model.Role;
+
+import java.security.Principal;
+
+/**
+ * Principal describing the user authenticated by the access token of the current request.
+ * <p>
+ * It is resolved once by {@link com.app.security.filter.AppAuthorizationFilter}, stored in the
+ * {@link org.springframework.security.core.context.SecurityContext} and injected into controller methods
+ * that declare a parameter of this type, so the token does not have to be parsed again further down the stack.
+ * </p>
+ *
+ * @param id       the unique identifier of the user
+ * @param username the unique username of the user
+ * @param role     the role assigned to the user
+ */
+public record AuthenticatedUser(Long id, String username, Role role) implements Principal {
+
+    /**
+     * Returns the username, used by Spring Security as the name of the authentication.
+     *
+     * @return the username of the user
+     */
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -0,0 +1,15 @@
+package com.app.security.dto;
+
+/**
+ * Data Transfer Object (DTO) representing the stored rotation state of a refresh token.
+ * <p>
+ * Read with a constructor expression, so it always reflects the database and never an entity cached
+ * by the current persistence context.
+ * </p>
+ *
+ * @param familyId   the identifier of the token family
+ * @param consumedAt the time the token was exchanged in epoch milliseconds, or {@code null} if unused
+ * @param revoked    whether the family of the token has been revoked
+ */
+public record RefreshTokenStateDto(String familyId, Long consumedAt, boolean revoked) {
+}
@@ -1,13 +1,19 @@
 package com.app.security.filter;
 
+import com.app.exception.TooManyRequestsException;
 import com.app.security.dto.AuthenticationDto;
+import com.app.security.dto.AuthenticationErrorDto;
 import com.app.security.service.TokenService;
+import com.app.security.throttle.LoginThrottle;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.SneakyThrows;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -30,17 +36,21 @@ public class AppAuthenticationFilter extends UsernamePasswordAuthenticationFilte
 
     private final TokenService tokenService;
     private final AuthenticationManager authenticationManager;
+    private final LoginThrottle loginThrottle;
 
     /**
-     * Constructs a new {@link AppAuthenticationFilter} with the specified {@link TokenService}
-     * and {@link AuthenticationManager}.
+     * Constructs a new {@link AppAuthenticationFilter} with the specified {@link TokenService},
+     * {@link AuthenticationManager} and {@link LoginThrottle}.
      *
      * @param tokenService          the service responsible for generating tokens
      * @param authenticationManager the authentication manager used to authenticate the user
+     * @param loginThrottle         the throttle limiting login attempts per username and client address
      */
-    public AppAuthenticationFilter(TokenService tokenService, AuthenticationManager authenticationManager) {
+    public AppAuthenticationFilter(
+            TokenService tokenService, AuthenticationManager authenticationManager, LoginThrottle loginThrottle) {
         this.tokenService = tokenService;
         this.authenticationManager = authenticationManager;
+        this.loginThrottle = loginThrottle;
     }
 
     /**
@@ -49,11 +59,16 @@ public class AppAuthenticationFilter extends UsernamePasswordAuthenticationFilte
      * The method reads the {@link AuthenticationDto} from the request body, which contains
      * the username and password. It then creates a {@link UsernamePasswordAuthenticationToken}
      * and delegates the authentication to the {@link AuthenticationManager}.
+     * Before that, the attempt is checked against the {@link LoginThrottle}, and a successful attempt is given
+     * back afterwards, so only failed attempts are throttled. The client address is the one Tomcat resolved from
+     * {@code X-Forwarded-For} of a trusted proxy, so clients behind the load balancer are throttled apart.
+     * If the attempt is throttled or the password hashing pool is saturated, a 429 response is written and
+     * {@code null} is returned, so the authentication is neither completed nor counted as a failure.
      * </p>
      *
      * @param request  the HTTP request containing the user's credentials
      * @param response the HTTP response
-     * @return the authenticated {@link Authentication} object
+     * @return the authenticated {@link Authentication} object, or {@code null} if the request was rejected
      * @throws AuthenticationException if authentication fails
      */
         @Override
@@ -63,13 +78,36 @@ public class AppAuthenticationFilter extends UsernamePasswordAuthenticationFilte
             var jsonBody = new ObjectMapper()
                     .readValue(request.getInputStream(), AuthenticationDto.class);
 
-            return authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
-                    jsonBody.username(),
-                    jsonBody.password(),
-                    Collections.emptyList()
-            ));
+            try {
+                loginThrottle.check(jsonBody.username(), request.getRemoteAddr());
+                var authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
+                        jsonBody.username(),
+                        jsonBody.password(),
+                        Collections.emptyList()
+                ));
+                loginThrottle.succeeded(jsonBody.username(), request.getRemoteAddr());
+                return authentication;
+            } catch (TooManyRequestsException e) {
+                tooManyRequests(response, e);
+                return null;
+            }
         }
 
+    /**
+     * Writes a 429 TOO MANY REQUESTS response with a {@code Retry-After} header.
+     *
+     * @param response the HTTP response
+     * @param e        the rejection cause
+     * @throws IOException if an I/O error occurs
+     */
+    private static void tooManyRequests(HttpServletResponse response, TooManyRequestsException e) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(new ObjectMapper().writeValueAsString(new AuthenticationErrorDto(e.getMessage())));
+        response.getWriter().flush();
+    }
+
     /**
      * Handles successful authentication by generating and setting authentication tokens.
      * <p>
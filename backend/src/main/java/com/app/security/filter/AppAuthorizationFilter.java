@@ -1,5 +1,6 @@
 package com.app.security.filter;
 
+import com.app.security.config.PublicEndpoints;
 import com.app.security.service.TokenService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -9,9 +10,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
-import java.util.List;
 import java.io.IOException;
-import java.util.Arrays;
 
 /**
  * Custom filter to handle authorization by parsing the access token from the request.
@@ -23,6 +22,8 @@ import java.util.Arrays;
  */
 public class AppAuthorizationFilter extends BasicAuthenticationFilter {
 
+    private static final String ACCESS_TOKEN_COOKIE = "AccessToken";
+
     private final TokenService tokenService;
 
     /**
@@ -42,6 +43,7 @@ public class AppAuthorizationFilter extends BasicAuthenticationFilter {
      * <p>
      * If the Authorization header is present and contains a valid Bearer token, this method will
      * parse the token using the {@link TokenService} and set the authentication in the security context.
+     * Requests to {@link PublicEndpoints} are passed on without reading the token.
      * </p>
      *
      * @param request  the HTTP request
@@ -54,44 +56,40 @@ public class AppAuthorizationFilter extends BasicAuthenticationFilter {
     protected void doFilterInternal(
             HttpServletRequest request, HttpServletResponse response,
             FilterChain chain) throws IOException, ServletException {
-        var uri = request.getRequestURI();
-
-        System.out.println(uri);
-        var permitAllUris = List.of(
-                "/users", "/login", "/users/refresh", "/users/lost", "/users/new");
-
-        var permitAllPrefixes = List.of(
-                "/swagger-ui",
-                "/.well-known",
-                "/v3/api-docs"
-        );
-
-        boolean isPermittedUri = permitAllUris.contains(uri) ||
-                permitAllPrefixes.stream().anyMatch(uri::startsWith);
+        if (!PublicEndpoints.isPublic(request)) {
 
-        if (!isPermittedUri) {
-
-            var cookies = request.getCookies();
-            if (cookies != null) {
-
-                var accessToken = Arrays.stream(cookies).filter(cookie -> cookie.getName().equals("AccessToken"))
-                        .findFirst()
-                        .map(cookie -> cookie.getValue())
-                        .orElse(null);
-
-                if (accessToken != null) {
-                    try {
-                        // Parse the access token and set the authentication context
-                        var authorizedUser = tokenService.parseAccessToken("Bearer " + accessToken);
-                        SecurityContextHolder.getContext().setAuthentication(authorizedUser);
-                    } catch (Exception e) {
-                        response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-                        response.setContentType("application/json");
-                    }
+            var accessToken = accessToken(request);
+            if (accessToken != null) {
+                try {
+                    // Parse the access token and set the authentication context
+                    var authorizedUser = tokenService.parseAccessTokenValue(accessToken);
+                    SecurityContextHolder.getContext().setAuthentication(authorizedUser);
+                } catch (Exception e) {
+                    response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+                    response.setContentType("application/json");
                 }
             }
         }
         // Proceed with the next filter in the chain
         chain.doFilter(request, response);
     }
+
+    /**
+     * Finds the access token cookie of the request.
+     *
+     * @param request the HTTP request
+     * @return the access token, or {@code null} if the request has no access token cookie
+     */
+    private static String accessToken(HttpServletRequest request) {
+        var cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (var cookie : cookies) {
+            if (ACCESS_TOKEN_COOKIE.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
 }
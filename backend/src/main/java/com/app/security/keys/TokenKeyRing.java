@@ -0,0 +1,424 @@
+package com.app.security.keys;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.UnsupportedJwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ring of keys used to sign and verify JSON Web Tokens, loaded from a PKCS12 keystore file.
+ * <p>
+ * Every keystore alias is a key id ({@code kid}) and may hold:
+ * <ul>
+ *     <li>a secret key entry - an HS512 key used for both signing and verification,</li>
+ *     <li>a private key entry - an Ed25519 key pair, the private key signs and the certificate's public key verifies,</li>
+ *     <li>a trusted certificate entry - an Ed25519 public key used for verification only.</li>
+ * </ul>
+ * Nodes sharing the same keystore accept each other's tokens. A node holding only certificates can verify tokens
+ * but never holds a private key. Asymmetric keys are provisioned with {@code keytool -genkeypair -keyalg Ed25519}.
+ * </p>
+ * <p>
+ * Tokens are verified against every key in the ring, so previous keys keep working until they are removed from the
+ * keystore. Tokens are signed with the newest signing key that is older than the activation delay, which gives all
+ * nodes time to reload the keystore before the first token signed with a new key reaches them. The file is reloaded
+ * periodically and, when rotation is enabled on a node, a new HS512 key is added once the active key is older than
+ * the rotation interval.
+ * </p>
+ * <p>
+ * Rotation runs under an exclusive lock on a sibling {@code .lock} file and re-reads the keystore inside the lock,
+ * so concurrently rotating nodes add one key after the other instead of overwriting each other's key. Keys
+ * generated by rotation are retired once a newer key has been signing for longer than the retirement delay,
+ * which must cover the longest token lifetime: they stop verifying on every node and the rotating node removes
+ * them from the file.
+ * </p>
+ */
+@Slf4j
+@Component
+public class TokenKeyRing extends LocatorAdapter<Key> {
+
+    private static final String KEYSTORE_TYPE = "PKCS12";
+
+    /**
+     * Alias prefix of the keys generated by this class; only these keys are retired automatically.
+     */
+    private static final String GENERATED_PREFIX = "hs512-";
+
+    private final Path keystorePath;
+    private final Path lockPath;
+    private final char[] keystorePassword;
+    private final long activationDelayMs;
+    private final long rotationIntervalMs;
+    private final long retirementDelayMs;
+
+    private volatile Keys keys;
+
+    /**
+     * Key used to sign new tokens.
+     *
+     * @param kid the key id written into the token header
+     * @param key the signing key
+     */
+    public record SigningKey(String kid, Key key) {
+    }
+
+    /**
+     * Snapshot of the loaded keystore.
+     *
+     * @param verificationKeys the verification keys by key id
+     * @param signingKeys      the signing-capable keys ordered from the newest to the oldest
+     * @param created          the creation times of the signing-capable keys by key id
+     * @param lastModified     the modification time of the loaded keystore file
+     */
+    private record Keys(
+            Map<String, Key> verificationKeys, List<SigningKey> signingKeys, Map<String, Long> created,
+            long lastModified) {
+    }
+
+    /**
+     * Constructs a new {@link TokenKeyRing} and loads the keystore.
+     *
+     * @param keystorePath       the path of the PKCS12 keystore file
+     * @param keystorePassword   the password of the keystore and its entries
+     * @param activationDelayMs  the time a new key waits before it is used for signing
+     * @param rotationIntervalMs the age of the active key after which a new key is generated, {@code 0} disables rotation
+     * @param retirementDelayMs  the time a generated key keeps verifying after a newer key took over signing
+     * @param generateIfMissing  whether a keystore with a fresh HS512 key is created when the file does not exist
+     * @throws IllegalStateException if the keystore cannot be read or contains no usable key
+     */
+    public TokenKeyRing(
+            @Value("${tokens.keys.keystore-path}") Path keystorePath,
+            @Value("${tokens.keys.keystore-password}") String keystorePassword,
+            @Value("${tokens.keys.activation-delay-ms}") long activationDelayMs,
+            @Value("${tokens.keys.rotation-interval-ms}") long rotationIntervalMs,
+            @Value("${tokens.keys.retirement-delay-ms}") long retirementDelayMs,
+            @Value("${tokens.keys.generate-if-missing}") boolean generateIfMissing) {
+        this.keystorePath = keystorePath;
+        this.lockPath = keystorePath.resolveSibling(keystorePath.getFileName() + ".lock");
+        this.keystorePassword = keystorePassword.toCharArray();
+        this.activationDelayMs = activationDelayMs;
+        this.rotationIntervalMs = rotationIntervalMs;
+        this.retirementDelayMs = retirementDelayMs;
+
+        if (Files.notExists(keystorePath)) {
+            if (!generateIfMissing) {
+                throw new IllegalStateException("Token keystore not found: " + keystorePath);
+            }
+            withFileLock(() -> {
+                if (Files.notExists(keystorePath)) {
+                    addGeneratedKey(emptyKeyStore());
+                }
+            });
+        }
+        this.keys = load();
+    }
+
+    /**
+     * Returns the key new tokens are signed with.
+     *
+     * @return the active signing key
+     * @throws IllegalStateException if this node holds no signing key
+     */
+    public SigningKey signingKey() {
+        var current = keys;
+        var activationLimit = System.currentTimeMillis() - activationDelayMs;
+
+        return current.signingKeys().stream()
+                .filter(signingKey -> current.created().get(signingKey.kid()) <= activationLimit)
+                .findFirst()
+                .or(() -> current.signingKeys().stream().reduce((newer, older) -> older))
+                .orElseThrow(() -> new IllegalStateException("No token signing key available"));
+    }
+
+    /**
+     * Returns the key verifying tokens with the given key id.
+     *
+     * @param kid the key id from the token header
+     * @return the verification key, or {@code null} if the key id is unknown
+     */
+    public Key verificationKey(String kid) {
+        return kid == null ? null : keys.verificationKeys().get(kid);
+    }
+
+    /**
+     * Locates the verification key for a token while it is parsed.
+     *
+     * @param header the protected header of the token
+     * @return the verification key named by the header's {@code kid}
+     * @throws UnsupportedJwtException if the token has no key id or the key id is unknown
+     */
+    @Override
+    protected Key locate(ProtectedHeader header) {
+        var key = verificationKey(header.getKeyId());
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown token key id");
+        }
+        return key;
+    }
+
+    /**
+     * Reloads the keystore when the file changed or a key retired and rotates the signing key when it is due.
+     */
+    @Scheduled(fixedDelayString = "${tokens.keys.reload-interval-ms}")
+    public void refresh() {
+        try {
+            if (rotationDue(keys)) {
+                rotate();
+            } else if (lastModified() != keys.lastModified() || retirementDue(keys)) {
+                keys = load();
+            }
+        } catch (RuntimeException e) {
+            log.error("Token keystore refresh failed, keeping the previously loaded keys", e);
+        }
+    }
+
+    /**
+     * Generates a new key and removes the retired ones under the file lock, then reloads the keystore.
+     * The keystore is re-read inside the lock, so a key added meanwhile by another node is kept and
+     * makes this rotation unnecessary.
+     */
+    private void rotate() {
+        withFileLock(() -> {
+            if (rotationDue(load())) {
+                var keyStore = readKeyStore();
+                removeRetiredKeys(keyStore);
+                addGeneratedKey(keyStore);
+            }
+        });
+        keys = load();
+    }
+
+    /**
+     * Checks whether the newest signing key is older than the rotation interval.
+     *
+     * @param current the loaded keys
+     * @return {@code true} if a new key should be generated
+     */
+    private boolean rotationDue(Keys current) {
+        if (rotationIntervalMs <= 0) {
+            return false;
+        }
+        return current.signingKeys().isEmpty() || current.created().get(current.signingKeys().getFirst().kid())
+                < System.currentTimeMillis() - rotationIntervalMs;
+    }
+
+    /**
+     * Checks whether a loaded key has reached its retirement since the keystore was loaded.
+     *
+     * @param current the loaded keys
+     * @return {@code true} if the keys must be reloaded to drop a retired key
+     */
+    private boolean retirementDue(Keys current) {
+        var now = System.currentTimeMillis();
+        return current.created().entrySet().stream()
+                .anyMatch(entry -> retired(entry.getKey(), entry.getValue(), current.created(), now));
+    }
+
+    /**
+     * Checks whether a generated key has been replaced for longer than the retirement delay, i.e. every
+     * token it signed has expired.
+     *
+     * @param alias     the key id
+     * @param createdAt the creation time of the key
+     * @param created   the creation times of all signing-capable keys
+     * @param now       the current time in epoch milliseconds
+     * @return {@code true} if the key must no longer verify tokens
+     */
+    private boolean retired(String alias, long createdAt, Map<String, Long> created, long now) {
+        if (!alias.startsWith(GENERATED_PREFIX)) {
+            return false;
+        }
+        // The key stopped signing when the next newer key became active
+        return created.values().stream()
+                .filter(newer -> newer > createdAt)
+                .min(Long::compare)
+                .map(newer -> newer + activationDelayMs + retirementDelayMs < now)
+                .orElse(false);
+    }
+
+    /**
+     * Removes the retired keys from the keystore content.
+     *
+     * @param keyStore the keystore content
+     */
+    private void removeRetiredKeys(KeyStore keyStore) {
+        try {
+            var created = new HashMap<String, Long>();
+            for (var alias : Collections.list(keyStore.aliases())) {
+                if (!keyStore.isCertificateEntry(alias)) {
+                    created.put(alias, creationTime(keyStore, alias));
+                }
+            }
+
+            var now = System.currentTimeMillis();
+            for (var entry : created.entrySet()) {
+                if (retired(entry.getKey(), entry.getValue(), created, now)) {
+                    keyStore.deleteEntry(entry.getKey());
+                    log.info("Retired token signing key {}", entry.getKey());
+                }
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot update token keystore: " + keystorePath, e);
+        }
+    }
+
+    /**
+     * Loads all usable entries of the keystore file.
+     *
+     * @return the loaded keys
+     */
+    private Keys load() {
+        try {
+            var lastModified = lastModified();
+            var keyStore = readKeyStore();
+            var protection = new KeyStore.PasswordProtection(keystorePassword);
+
+            var verificationKeys = new HashMap<String, Key>();
+            var created = new HashMap<String, Long>();
+            var signingKeys = new ArrayList<SigningKey>();
+
+            var allCreated = new HashMap<String, Long>();
+            for (var alias : Collections.list(keyStore.aliases())) {
+                if (!keyStore.isCertificateEntry(alias)) {
+                    allCreated.put(alias, creationTime(keyStore, alias));
+                }
+            }
+
+            var now = System.currentTimeMillis();
+            for (var alias : Collections.list(keyStore.aliases())) {
+                var createdAt = creationTime(keyStore, alias);
+                if (retired(alias, createdAt, allCreated, now)) {
+                    continue;
+                }
+
+                switch (keyStore.getEntry(alias, keyStore.isCertificateEntry(alias) ? null : protection)) {
+                    case KeyStore.SecretKeyEntry entry -> {
+                        verificationKeys.put(alias, entry.getSecretKey());
+                        signingKeys.add(new SigningKey(alias, entry.getSecretKey()));
+                        created.put(alias, createdAt);
+                    }
+                    case KeyStore.PrivateKeyEntry entry -> {
+                        verificationKeys.put(alias, entry.getCertificate().getPublicKey());
+                        signingKeys.add(new SigningKey(alias, entry.getPrivateKey()));
+                        created.put(alias, createdAt);
+                    }
+                    case KeyStore.TrustedCertificateEntry entry ->
+                            verificationKeys.put(alias, entry.getTrustedCertificate().getPublicKey());
+                    case null, default -> log.warn("Ignoring unsupported token keystore entry {}", alias);
+                }
+            }
+
+            if (verificationKeys.isEmpty()) {
+                throw new IllegalStateException("Token keystore contains no usable key: " + keystorePath);
+            }
+            signingKeys.sort(Comparator.comparing((SigningKey signingKey) -> created.get(signingKey.kid())).reversed());
+
+            log.info("Loaded {} token verification keys, {} of them can sign", verificationKeys.size(), signingKeys.size());
+            return new Keys(Map.copyOf(verificationKeys), List.copyOf(signingKeys), Map.copyOf(created), lastModified);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot load token keystore: " + keystorePath, e);
+        }
+    }
+
+    /**
+     * Adds a freshly generated HS512 key to the keystore and writes it back to the file.
+     * The file is replaced atomically, so other nodes never read a partially written keystore.
+     *
+     * @param keyStore the current keystore content
+     */
+    private void addGeneratedKey(KeyStore keyStore) {
+        var kid = GENERATED_PREFIX + UUID.randomUUID();
+        try {
+            keyStore.setEntry(
+                    kid,
+                    new KeyStore.SecretKeyEntry(Jwts.SIG.HS512.key().build()),
+                    new KeyStore.PasswordProtection(keystorePassword));
+
+            var directory = keystorePath.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            var temporary = Files.createTempFile(directory, "tokens", ".p12");
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                keyStore.store(out, keystorePassword);
+            }
+            Files.move(temporary, keystorePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Generated token signing key {} at {}", kid, new Date());
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot write token keystore: " + keystorePath, e);
+        }
+    }
+
+    /**
+     * Runs the action while holding an exclusive lock on the lock file next to the keystore,
+     * so only one node at a time writes the keystore.
+     *
+     * @param action the action writing the keystore
+     */
+    private void withFileLock(Runnable action) {
+        try {
+            Files.createDirectories(lockPath.toAbsolutePath().getParent());
+            try (var channel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 var ignored = channel.lock()) {
+                action.run();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot lock token keystore: " + keystorePath, e);
+        }
+    }
+
+    private static long creationTime(KeyStore keyStore, String alias) throws KeyStoreException {
+        var creationDate = keyStore.getCreationDate(alias);
+        return creationDate == null ? 0L : creationDate.getTime();
+    }
+
+    private KeyStore readKeyStore() {
+        try (InputStream in = Files.newInputStream(keystorePath)) {
+            var keyStore = KeyStore.getInstance(KEYSTORE_TYPE);
+            keyStore.load(in, keystorePassword);
+            return keyStore;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot read token keystore: " + keystorePath, e);
+        }
+    }
+
+    private KeyStore emptyKeyStore() {
+        try {
+            var keyStore = KeyStore.getInstance(KEYSTORE_TYPE);
+            keyStore.load(null, keystorePassword);
+            return keyStore;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot create token keystore", e);
+        }
+    }
+
+    private long lastModified() {
+        try {
+            return Files.getLastModifiedTime(keystorePath).toMillis();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read token keystore: " + keystorePath, e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.app.security.resolver;
+
+import com.app.security.dto.AuthenticatedUser;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves controller method parameters of type {@link AuthenticatedUser}.
+ * <p>
+ * The principal is taken from the security context populated by
+ * {@link com.app.security.filter.AppAuthorizationFilter}, so controllers receive the authenticated user
+ * without reading or parsing the access token themselves.
+ * </p>
+ */
+@Component
+public class AuthenticatedUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    /**
+     * Checks whether the parameter is an {@link AuthenticatedUser}.
+     *
+     * @param parameter the controller method parameter
+     * @return {@code true} if the parameter type is {@link AuthenticatedUser}
+     */
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return AuthenticatedUser.class.equals(parameter.getParameterType());
+    }
+
+    /**
+     * Returns the {@link AuthenticatedUser} stored in the security context.
+     *
+     * @param parameter     the controller method parameter
+     * @param mavContainer  the model and view container
+     * @param webRequest    the current request
+     * @param binderFactory the data binder factory
+     * @return the authenticated user of the current request
+     * @throws AuthenticationCredentialsNotFoundException if the request is not authenticated
+     */
+    @Override
+    public Object resolveArgument(
+            MethodParameter parameter, ModelAndViewContainer mavContainer,
+            NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser) {
+            return authenticatedUser;
+        }
+
+        throw new AuthenticationCredentialsNotFoundException("User is not authenticated");
+    }
+}
@@ -0,0 +1,129 @@
+package com.app.security.revocation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over strings.
+ * <p>
+ * Answers "definitely not present" without false negatives and "maybe present" with a bounded false-positive
+ * probability. Bits are set with atomic operations, so concurrent {@link #put(String)} and
+ * {@link #mightContain(String)} calls need no locking. Elements cannot be removed; an expiring set is
+ * modeled by periodically building a new filter from the live elements.
+ * </p>
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashFunctions;
+
+    /**
+     * Constructs a new {@link BloomFilter} sized for the expected number of elements.
+     *
+     * @param expectedElements  the number of elements the filter is sized for
+     * @param falsePositiveRate the desired false-positive probability at {@code expectedElements}
+     * @throws IllegalArgumentException if the parameters are out of range
+     */
+    public BloomFilter(long expectedElements, double falsePositiveRate) {
+        if (expectedElements <= 0) {
+            throw new IllegalArgumentException("Expected elements must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+
+        var optimalBits = (long) Math.ceil(-expectedElements * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        var words = (int) Math.max(1, (optimalBits + 63) / 64);
+
+        this.bits = new AtomicLongArray(words);
+        this.bitSize = words * 64L;
+        this.hashFunctions = (int) Math.max(1, Math.round((double) bitSize / expectedElements * Math.log(2)));
+    }
+
+    /**
+     * Adds the element to the filter.
+     *
+     * @param element the element to add
+     */
+    public void put(String element) {
+        var h1 = hash(element);
+        var h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+
+        for (var i = 0; i < hashFunctions; i++) {
+            var index = Math.floorMod(h1 + i * h2, bitSize);
+            var word = (int) (index >>> 6);
+            var mask = 1L << index;
+            if ((bits.get(word) & mask) == 0) {
+                bits.getAndAccumulate(word, mask, (current, bit) -> current | bit);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the element may have been added.
+     *
+     * @param element the element to check
+     * @return {@code false} if the element was definitely never added, {@code true} if it possibly was
+     */
+    public boolean mightContain(String element) {
+        var h1 = hash(element);
+        var h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+
+        for (var i = 0; i < hashFunctions; i++) {
+            var index = Math.floorMod(h1 + i * h2, bitSize);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the expected false-positive probability once the given number of elements has been added.
+     *
+     * @param elements the number of added elements
+     * @return the expected false-positive probability
+     */
+    public double expectedFalsePositiveRate(long elements) {
+        return Math.pow(1 - Math.exp(-(double) hashFunctions * elements / bitSize), hashFunctions);
+    }
+
+    /**
+     * Returns the memory taken by the bit array.
+     *
+     * @return the size of the bit array in bytes
+     */
+    public long sizeInBytes() {
+        return bitSize / 8;
+    }
+
+    /**
+     * Computes a 64-bit FNV-1a hash of the string, finalized with {@link #mix(long)}.
+     *
+     * @param element the string to hash
+     * @return the hash value
+     */
+    private static long hash(String element) {
+        var hash = 0xcbf29ce484222325L;
+        for (var i = 0; i < element.length(); i++) {
+            hash ^= element.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Spreads the bits of the value (MurmurHash3 64-bit finalizer).
+     *
+     * @param value the value to mix
+     * @return the mixed value
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
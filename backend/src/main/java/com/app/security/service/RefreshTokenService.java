@@ -0,0 +1,38 @@
+package com.app.security.service;
+
+import com.app.security.dto.TokensDto;
+
+import java.util.function.Function;
+
+/**
+ * Interface for tracking the rotation of refresh tokens.
+ * <p>
+ * Every refresh token can be exchanged for a new token pair once. Tokens rotated from the same login form a family.
+ * Presenting a consumed token again within a short grace period returns the pair it was already exchanged for, so
+ * concurrent refreshes from several browser tabs succeed. Presenting it later is treated as token theft and revokes
+ * the whole family.
+ * </p>
+ */
+public interface RefreshTokenService {
+
+    /**
+     * Registers a newly issued refresh token.
+     *
+     * @param jti       the unique identifier of the token
+     * @param familyId  the identifier of the token family
+     * @param userId    the ID of the user the token was issued for
+     * @param expiresAt the expiration time of the token in epoch milliseconds
+     */
+    void register(String jti, String familyId, Long userId, long expiresAt);
+
+    /**
+     * Consumes the refresh token and exchanges it for a new token pair.
+     *
+     * @param jti    the unique identifier of the presented token
+     * @param issuer the function issuing a new token pair in the given family
+     * @return the new token pair, or the pair already issued for this token if it is reused within the grace period
+     * @throws IllegalStateException if the token is unknown, its family has been revoked or it is reused
+     *                               after the grace period
+     */
+    TokensDto rotate(String jti, Function<String, TokensDto> issuer);
+}
@@ -0,0 +1,27 @@
+package com.app.security.service;
+
+/**
+ * Interface for tracking JSON Web Tokens that were invalidated before their expiration.
+ * <p>
+ * Tokens are identified by their {@code jti} claim. Revoked identifiers are kept until the token would
+ * have expired, after which they no longer need to be remembered.
+ * </p>
+ */
+public interface TokenRevocationService {
+
+    /**
+     * Revokes the token with the given identifier.
+     *
+     * @param jti       the unique identifier of the token
+     * @param expiresAt the expiration time of the token in epoch milliseconds
+     */
+    void revoke(String jti, long expiresAt);
+
+    /**
+     * Checks whether the token with the given identifier has been revoked.
+     *
+     * @param jti the unique identifier of the token, may be {@code null} for tokens without identifier
+     * @return {@code true} if the token has been revoked
+     */
+    boolean isRevoked(String jti);
+}
@@ -42,6 +42,18 @@ public interface TokenService {
      */
     UsernamePasswordAuthenticationToken parseAccessToken(String token);
 
+    /**
+     * Parses a bare access token, without the authorization header prefix, and retrieves the associated authentication.
+     * <p>
+     * Used when the token is read from a cookie, so no prefixed header has to be built for every request.
+     * </p>
+     *
+     * @param token the compact JWT access token
+     * @return a {@link UsernamePasswordAuthenticationToken} containing the authenticated user's details
+     * @throws IllegalArgumentException if the token is invalid or cannot be parsed
+     */
+    UsernamePasswordAuthenticationToken parseAccessTokenValue(String token);
+
     /**
      * Refreshes the access token using the provided refresh token.
      * <p>
@@ -68,5 +80,15 @@ public interface TokenService {
      */
     Long id(String token);
 
+    /**
+     * Revokes the given token, so it is rejected even though it has not expired yet.
+     * <p>
+     * Tokens that are malformed or already expired are ignored, as they are rejected anyway.
+     * </p>
+     *
+     * @param token the access or refresh token to revoke
+     */
+    void revoke(String token);
+
     void  setCookie(TokensDto tokens, HttpServletResponse response);
 }
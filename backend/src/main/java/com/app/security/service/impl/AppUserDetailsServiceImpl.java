@@ -1,14 +1,18 @@
 package com.app.security.service.impl;
 
+import com.app.controller.dto.user.UserChangedDto;
 import com.app.persistence.Repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -18,13 +22,16 @@ import java.util.List;
  * This service is used to retrieve user details from the database by username and return a Spring Security
  * {@link User} object containing the user's credentials and authorities. The service is responsible for
  * converting the retrieved user entity into a format suitable for Spring Security's authentication mechanism.
+ * As a {@link UserDetailsPasswordService} it also stores re-hashed passwords when a successful login
+ * detects a hash with an outdated work factor.
  * </p>
  */
 @Service
 @RequiredArgsConstructor
-public class AppUserDetailsServiceImpl implements UserDetailsService {
+public class AppUserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Loads user details by the username.
@@ -53,4 +60,19 @@ public class AppUserDetailsServiceImpl implements UserDetailsService {
                 })
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
     }
+
+    /**
+     * Stores the upgraded password hash of a user after a successful login.
+     *
+     * @param user        the authenticated user
+     * @param newPassword the password encoded with the current work factor
+     * @return the user details with the new encoded password
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        eventPublisher.publishEvent(new UserChangedDto(user.getUsername()));
+        return User.withUserDetails(user).password(newPassword).build();
+    }
 }
@@ -0,0 +1,192 @@
+package com.app.security.service.impl;
+
+import com.app.persistence.Repository.RefreshTokenRepository;
+import com.app.persistence.entity.RefreshTokenEntity;
+import com.app.security.dto.RefreshTokenStateDto;
+import com.app.security.dto.TokensDto;
+import com.app.security.service.RefreshTokenService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Service implementation for tracking the rotation of refresh tokens.
+ * <p>
+ * The {@code refresh_tokens} table is the only authority on the state of a token, so every node sees the
+ * rotations and revocations of the others at once. An issued token is inserted before it is handed out, and a
+ * rotation consumes the presented token with a single conditional update that succeeds for exactly one caller
+ * on any node. A token consumed earlier and presented again after the grace period revokes its whole family
+ * in the same request.
+ * </p>
+ * <p>
+ * The pair a token was exchanged for is kept in memory for the grace period only, so concurrent refreshes of
+ * the same token on this node receive the same pair. A replay within the grace period on another node is
+ * rejected without revoking the family.
+ * </p>
+ * <p>
+ * Rotations, grace period replays, detected reuses and the remembered pairs are published as Micrometer meters
+ * under {@code tokens.refresh.*}.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Rotations of this node by the identifier of the consumed token, kept for the grace period.
+     */
+    private final Map<String, Rotation> rotations = new ConcurrentHashMap<>();
+
+    private Counter rotated;
+    private Counter graceReplays;
+    private Counter reuseDetected;
+
+    @Value("${tokens.refresh.grace-period-ms}")
+    private long gracePeriodMs;
+
+    /**
+     * Rotation of one token on this node. Guarded by its own monitor, so concurrent refreshes of the same token
+     * wait for the first one and then receive its pair.
+     */
+    private static final class Rotation {
+
+        private long consumedAt;
+        private TokensDto replacement;
+    }
+
+    /**
+     * Registers the meters.
+     */
+    @PostConstruct
+    public void init() {
+        rotated = Counter.builder("tokens.refresh.rotations").register(meterRegistry);
+        graceReplays = Counter.builder("tokens.refresh.grace-replays").register(meterRegistry);
+        reuseDetected = Counter.builder("tokens.refresh.reuse-detected").register(meterRegistry);
+        Gauge.builder("tokens.refresh.replacements", rotations, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Stores a newly issued refresh token.
+     *
+     * @param jti       the unique identifier of the token
+     * @param familyId  the identifier of the token family
+     * @param userId    the ID of the user the token was issued for
+     * @param expiresAt the expiration time of the token in epoch milliseconds
+     */
+    @Override
+    public void register(String jti, String familyId, Long userId, long expiresAt) {
+        refreshTokenRepository.save(RefreshTokenEntity
+                .builder()
+                .jti(jti)
+                .familyId(familyId)
+                .userId(userId)
+                .expiresAt(expiresAt)
+                .build());
+    }
+
+    /**
+     * Consumes the refresh token and exchanges it for a new token pair.
+     * <p>
+     * Concurrent rotations of the same token on this node are serialized, so exactly one new pair is issued
+     * and every other caller inside the grace period receives that same pair. Across nodes, the conditional
+     * update consuming the token decides which node rotates it; a token already consumed elsewhere is rejected,
+     * and after the grace period its family is revoked.
+     * </p>
+     *
+     * @param jti    the unique identifier of the presented token
+     * @param issuer the function issuing a new token pair in the given family
+     * @return the new token pair
+     * @throws IllegalStateException if the token is unknown, its family has been revoked or it is reused
+     *                               after the grace period
+     */
+    @Override
+    public TokensDto rotate(String jti, Function<String, TokensDto> issuer) {
+        var rotation = rotations.computeIfAbsent(jti, key -> new Rotation());
+
+        synchronized (rotation) {
+            var now = System.currentTimeMillis();
+            if (rotation.replacement != null && now - rotation.consumedAt <= gracePeriodMs) {
+                graceReplays.increment();
+                return rotation.replacement;
+            }
+
+            try {
+                var familyId = refreshTokenRepository.findStateByJti(jti)
+                        .map(RefreshTokenStateDto::familyId)
+                        .orElseThrow(() -> new IllegalStateException("Refresh token has been revoked"));
+
+                if (refreshTokenRepository.consume(jti, now) == 1) {
+                    var replacement = issuer.apply(familyId);
+                    rotation.consumedAt = now;
+                    rotation.replacement = replacement;
+                    rotated.increment();
+                    return replacement;
+                }
+
+                var state = refreshTokenRepository.findStateByJti(jti)
+                        .orElseThrow(() -> new IllegalStateException("Refresh token has been revoked"));
+                if (state.revoked()) {
+                    throw new IllegalStateException("Refresh token has been revoked");
+                }
+                if (state.consumedAt() != null && now - state.consumedAt() <= gracePeriodMs) {
+                    throw new IllegalStateException("Refresh token has already been used");
+                }
+                throw reuse(state.familyId());
+            } finally {
+                if (rotation.replacement == null) {
+                    // Failed rotations are not remembered, so unknown tokens cannot grow the map
+                    rotations.remove(jti, rotation);
+                }
+            }
+        }
+    }
+
+    /**
+     * Revokes the family of a reused token.
+     *
+     * @param familyId the identifier of the family of the reused token
+     * @return the exception rejecting the reuse
+     */
+    private IllegalStateException reuse(String familyId) {
+        reuseDetected.increment();
+        refreshTokenRepository.revokeFamilies(List.of(familyId));
+        log.warn("Reuse of refresh token detected, family {} revoked", familyId);
+        return new IllegalStateException("Refresh token has been revoked");
+    }
+
+    /**
+     * Removes expired tokens from the database and forgets the pairs whose grace period has passed.
+     */
+    @Scheduled(fixedDelayString = "${tokens.refresh.purge-interval-ms}")
+    @Transactional
+    public void purgeExpired() {
+        var now = System.currentTimeMillis();
+        var deleted = refreshTokenRepository.deleteExpired(now);
+
+        rotations.values().removeIf(rotation -> {
+            synchronized (rotation) {
+                return rotation.replacement != null && now - rotation.consumedAt > gracePeriodMs;
+            }
+        });
+
+        if (deleted > 0) {
+            log.debug("Purged {} expired refresh tokens", deleted);
+        }
+    }
+}
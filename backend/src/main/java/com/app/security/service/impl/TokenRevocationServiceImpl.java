@@ -0,0 +1,233 @@
+package com.app.security.service.impl;
+
+import com.app.persistence.Repository.RevokedTokenRepository;
+import com.app.persistence.entity.RevokedTokenEntity;
+import com.app.security.revocation.BloomFilter;
+import com.app.security.service.TokenRevocationService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service implementation for tracking revoked tokens.
+ * <p>
+ * Revoked identifiers are persisted in the {@code revoked_tokens} table and mirrored in memory by an exact set
+ * guarded by a {@link BloomFilter}. The common "not revoked" answer is given by the Bloom filter alone and
+ * only possible hits consult the exact set. A revocation enters the set once its row has been committed.
+ * The set is periodically refreshed with the rows revoked since the previous refresh, so revocations made by
+ * other nodes are honoured within the refresh interval. Expired identifiers are purged periodically and the
+ * Bloom filter is rebuilt from the remaining ones.
+ * </p>
+ * <p>
+ * The revocation time of a row is taken on the revoking node before its insert commits, so every refresh
+ * reads back a configured overlap before the previous one. The overlap covers the clock difference between
+ * the nodes and the duration of the insert; rows read twice are skipped.
+ * </p>
+ * <p>
+ * Size, estimated memory usage, expected and observed false positives are published as Micrometer meters
+ * under {@code tokens.revocation.*}.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    /**
+     * Rough heap cost of one entry of the exact set: the 36 character jti string,
+     * the boxed expiration time and the hash map node.
+     */
+    private static final long ESTIMATED_ENTRY_BYTES = 160;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final LongAdder bloomPositives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private volatile BloomFilter bloomFilter;
+
+    /**
+     * Time of the start of the previous refresh, in epoch milliseconds.
+     */
+    private volatile long refreshedAt;
+
+    @Value("${tokens.revocation.expected-entries}")
+    private long expectedEntries;
+
+    @Value("${tokens.revocation.false-positive-rate}")
+    private double falsePositiveRate;
+
+    @Value("${tokens.revocation.refresh-overlap-ms}")
+    private long refreshOverlapMs;
+
+    /**
+     * Loads the revoked tokens that have not expired yet and registers the meters.
+     */
+    @PostConstruct
+    public void init() {
+        var now = System.currentTimeMillis();
+        refreshedAt = now;
+        revokedTokenRepository
+                .findAllByExpiresAtGreaterThan(now)
+                .forEach(token -> revokedTokens.put(token.getJti(), token.getExpiresAt()));
+
+        synchronized (this) {
+            rebuildBloomFilter();
+        }
+
+        Gauge.builder("tokens.revocation.entries", revokedTokens, Map::size).register(meterRegistry);
+        Gauge.builder("tokens.revocation.memory.bytes", this, TokenRevocationServiceImpl::estimatedMemoryUsage)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("tokens.revocation.bloom.expected-fpp", this,
+                service -> service.bloomFilter.expectedFalsePositiveRate(service.revokedTokens.size()))
+                .register(meterRegistry);
+        FunctionCounter.builder("tokens.revocation.bloom.positives", bloomPositives, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder("tokens.revocation.bloom.false-positives", falsePositives, LongAdder::sum)
+                .register(meterRegistry);
+
+        log.info("Loaded {} revoked tokens", revokedTokens.size());
+    }
+
+    /**
+     * Revokes the token and persists the revocation.
+     * <p>
+     * The row is inserted and committed in its own transaction, outside of any transaction of the caller, and
+     * the token is added to the in-memory set only after that. If another request or node has revoked the same
+     * token concurrently, the unique identifier is already stored and the token is treated as revoked.
+     * </p>
+     *
+     * @param jti       the unique identifier of the token
+     * @param expiresAt the expiration time of the token in epoch milliseconds
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void revoke(String jti, long expiresAt) {
+        if (jti == null || revokedTokens.containsKey(jti)) {
+            return;
+        }
+
+        try {
+            revokedTokenRepository.saveAndFlush(RevokedTokenEntity
+                    .builder()
+                    .jti(jti)
+                    .expiresAt(expiresAt)
+                    .revokedAt(System.currentTimeMillis())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Token {} was already revoked", jti);
+        }
+
+        remember(jti, expiresAt);
+    }
+
+    /**
+     * Adds the revoked tokens persisted by other nodes since the last refresh to the in-memory set.
+     */
+    @Scheduled(fixedDelayString = "${tokens.revocation.refresh-interval-ms}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        var now = System.currentTimeMillis();
+        var since = refreshedAt - refreshOverlapMs;
+        var tokens = revokedTokenRepository.findAllByRevokedAtGreaterThanEqualAndExpiresAtGreaterThan(since, now);
+        var added = 0;
+        for (var token : tokens) {
+            if (!revokedTokens.containsKey(token.getJti())) {
+                remember(token.getJti(), token.getExpiresAt());
+                added++;
+            }
+        }
+
+        refreshedAt = now;
+
+        if (added > 0) {
+            log.debug("Loaded {} revoked tokens from other nodes", added);
+        }
+    }
+
+    /**
+     * Checks whether the token has been revoked without accessing the database.
+     *
+     * @param jti the unique identifier of the token
+     * @return {@code true} if the token has been revoked
+     */
+    @Override
+    public boolean isRevoked(String jti) {
+        if (jti == null || !bloomFilter.mightContain(jti)) {
+            return false;
+        }
+
+        bloomPositives.increment();
+        if (revokedTokens.containsKey(jti)) {
+            return true;
+        }
+
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Removes expired revocations from memory and from the database,
+     * then rebuilds the Bloom filter from the remaining identifiers.
+     */
+    @Scheduled(fixedDelayString = "${tokens.revocation.purge-interval-ms}")
+    @Transactional
+    public void purgeExpired() {
+        var now = System.currentTimeMillis();
+        var deleted = revokedTokenRepository.deleteExpired(now);
+
+        synchronized (this) {
+            revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+            rebuildBloomFilter();
+        }
+
+        if (deleted > 0) {
+            log.debug("Purged {} expired revoked tokens", deleted);
+        }
+    }
+
+    /**
+     * Adds a revoked token to the exact set and the Bloom filter.
+     *
+     * @param jti       the unique identifier of the token
+     * @param expiresAt the expiration time of the token in epoch milliseconds
+     */
+    private synchronized void remember(String jti, long expiresAt) {
+        revokedTokens.put(jti, expiresAt);
+        bloomFilter.put(jti);
+    }
+
+    /**
+     * Builds a new Bloom filter from the exact set and swaps it in.
+     * Callers must hold the monitor of this service, so no revocation is lost while the filter is swapped.
+     */
+    private void rebuildBloomFilter() {
+        var filter = new BloomFilter(Math.max(expectedEntries, revokedTokens.size() * 2L), falsePositiveRate);
+        revokedTokens.keySet().forEach(filter::put);
+        bloomFilter = filter;
+    }
+
+    /**
+     * Estimates the heap used by the revocation set and the Bloom filter.
+     *
+     * @return the estimated memory usage in bytes
+     */
+    private double estimatedMemoryUsage() {
+        return bloomFilter.sizeInBytes() + revokedTokens.size() * ESTIMATED_ENTRY_BYTES;
+    }
+}
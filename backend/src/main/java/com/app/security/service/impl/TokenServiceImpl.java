@@ -1,10 +1,18 @@
 package com.app.security.service.impl;
 
+import com.app.model.Role;
 import com.app.persistence.Repository.UserRepository;
+import com.app.persistence.entity.UserEntity;
+import com.app.security.cache.VerifiedClaimsCache;
+import com.app.security.dto.AuthenticatedUser;
 import com.app.security.dto.RefreshTokenDto;
 import com.app.security.dto.TokensDto;
+import com.app.security.keys.TokenKeyRing;
+import com.app.security.service.RefreshTokenService;
+import com.app.security.service.TokenRevocationService;
 import com.app.security.service.TokenService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
@@ -16,9 +24,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Service implementation for handling JWT token creation, parsing, and refreshing.
@@ -32,9 +40,17 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TokenServiceImpl implements TokenService {
 
+    private static final String USERNAME_CLAIM = "username";
+    private static final String ROLE_CLAIM = "role";
+    private static final String TOKEN_VERSION_CLAIM = "ver";
+    private static final String FAMILY_CLAIM = "fam";
+
     private final UserRepository userRepository;
-    private final SecretKey secretKey;
+    private final TokenKeyRing tokenKeyRing;
     private final PasswordEncoder passwordEncoder;
+    private final VerifiedClaimsCache verifiedClaimsCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
 
     @Value("${tokens.refresh.expiration_time_ms}")
     private long refreshExpirationTimeMs;
@@ -48,6 +64,13 @@ public class TokenServiceImpl implements TokenService {
     @Value("${tokens.prefix}")
     private String prefix;
 
+    /**
+     * When enabled, the username and role signed into the access token are trusted for the token's lifetime
+     * and no database lookup is done per request. Revocation is then enforced when the token is refreshed.
+     */
+    @Value("${tokens.stateless-authorization}")
+    private boolean statelessAuthorization;
+
     /**
      * Generates access and refresh tokens for the authenticated user.
      * <p>
@@ -65,18 +88,20 @@ public class TokenServiceImpl implements TokenService {
                 .findByUsername(authentication.getName())
                 .orElseThrow(() -> new IllegalArgumentException("Authentication failed"));
 
-        var userId = userFromDb.getId();
         var currentTime = new Date();
         var accessTokenExpirationTime = new Date(currentTime.getTime() + accessExpirationTimeMs);
         var refreshTokenExpirationTime = new Date(currentTime.getTime() + refreshExpirationTimeMs);
-        return getTokens(userId, currentTime, accessTokenExpirationTime, refreshTokenExpirationTime);
+        return getTokens(userFromDb, UUID.randomUUID().toString(),
+                currentTime, accessTokenExpirationTime, refreshTokenExpirationTime);
     }
 
     /**
      * Parses the access token from the authorization header and retrieves the associated authentication.
      * <p>
      * This method extracts the token from the authorization header, verifies its validity, and retrieves
-     * the user details associated with the token. It then creates and returns a {@link UsernamePasswordAuthenticationToken}.
+     * the user details associated with the token. It then creates and returns a {@link UsernamePasswordAuthenticationToken}
+     * whose principal is the {@link AuthenticatedUser} of the request.
+     * In stateless authorization mode the user details are read from the token claims instead of the database.
      * </p>
      *
      * @param header the authorization header containing the access token
@@ -89,34 +114,68 @@ public class TokenServiceImpl implements TokenService {
             throw new IllegalArgumentException("Authorization header is incorrect");
         }
 
-        var token = header.replaceAll(prefix, "");
+        return parseAccessTokenValue(header.substring(prefix.length()));
+    }
+
+    /**
+     * Parses a bare access token and retrieves the associated authentication.
+     * <p>
+     * In stateless authorization mode the user details are read from the token claims instead of the database.
+     * </p>
+     *
+     * @param token the compact JWT access token
+     * @return the {@link UsernamePasswordAuthenticationToken} representing the authenticated user
+     * @throws IllegalArgumentException if the token is invalid or has been revoked
+     */
+    @Override
+    public UsernamePasswordAuthenticationToken parseAccessTokenValue(String token) {
+        // Verifies signature and expiration once, further reads of this token hit the cache
+        var claims = claims(token);
+        var userId = Long.parseLong(claims.getSubject());
 
-        expirationTime(token);
+        if (tokenRevocationService.isRevoked(claims.getId())) {
+            throw new IllegalArgumentException("Token has been revoked");
+        }
 
-        var userId = id(token);
+        if (statelessAuthorization && claims.get(ROLE_CLAIM) != null) {
+            return authentication(new AuthenticatedUser(
+                    userId,
+                    claims.get(USERNAME_CLAIM, String.class),
+                    Role.valueOf(claims.get(ROLE_CLAIM, String.class))));
+        }
 
         return userRepository.findById(userId)
-                .map(userFromDb -> {
-                    var userDto = userFromDb.toUsernamePasswordAuthenticationTokenDto();
-                    return new UsernamePasswordAuthenticationToken(
-                            userDto.username(),
-                            null,
-                            List.of(new SimpleGrantedAuthority(userDto.role()))
-                    );
-                }).orElseThrow(() -> new IllegalArgumentException("Authorization failed"));
+                .map(userFromDb -> authentication(userFromDb.toAuthenticatedUser()))
+                .orElseThrow(() -> new IllegalArgumentException("Authorization failed"));
+    }
+
+    /**
+     * Helper method to create the authentication stored in the security context.
+     *
+     * @param authenticatedUser the principal of the request
+     * @return the {@link UsernamePasswordAuthenticationToken} granting the user's role
+     */
+    private static UsernamePasswordAuthenticationToken authentication(AuthenticatedUser authenticatedUser) {
+        return new UsernamePasswordAuthenticationToken(
+                authenticatedUser,
+                null,
+                List.of(new SimpleGrantedAuthority(authenticatedUser.role().name()))
+        );
     }
 
     /**
      * Refreshes the access token using the provided refresh token.
      * <p>
-     * This method validates the refresh token, checks if the associated access token is still valid,
-     * and generates a new set of tokens if possible.
+     * This method validates the refresh token, checks that it has not been revoked, that its token version
+     * still matches the user's current version and that the account is enabled, and exchanges it for a new set of
+     * tokens through the {@link RefreshTokenService}. Every refresh token can be used only once; a reuse within
+     * the grace period returns the same new tokens, a later reuse revokes the whole token family.
      * </p>
      *
      * @param refreshTokenDto the DTO containing the refresh token
      * @return the new {@link TokensDto} containing the new access and refresh tokens
      * @throws IllegalArgumentException if the refresh token is invalid or null
-     * @throws IllegalStateException    if the old access token has expired
+     * @throws IllegalStateException    if the refresh token has been revoked or reused
      */
     @Override
     public TokensDto refreshToken(RefreshTokenDto refreshTokenDto) {
@@ -124,61 +183,95 @@ public class TokenServiceImpl implements TokenService {
             throw new IllegalArgumentException("Refresh token cannot be null");
         }
 
-        var refreshToken = refreshTokenDto.token();
-        expirationTime(refreshToken);
+        var claims = claims(refreshTokenDto.token());
 
-        var userId = id(refreshToken);
-        var currentTime = new Date();
-        var newAccessTokenExpirationTime = new Date(currentTime.getTime() + accessExpirationTimeMs);
-        var newRefreshTokenExpirationTime = new Date(currentTime.getTime() + refreshExpirationTimeMs);
+        if (tokenRevocationService.isRevoked(claims.getId())) {
+            throw new IllegalStateException("Refresh token has been revoked");
+        }
+
+        var userFromDb = userRepository
+                .findById(Long.parseLong(claims.getSubject()))
+                .orElseThrow(() -> new IllegalArgumentException("Authorization failed"));
+
+        var tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Long.class);
+        if (tokenVersion == null || tokenVersion != userFromDb.getTokenVersion() || !userFromDb.isEnable()) {
+            throw new IllegalStateException("Refresh token has been revoked");
+        }
 
-        return getTokens(userId, currentTime, newAccessTokenExpirationTime, newRefreshTokenExpirationTime);
+        return refreshTokenService.rotate(claims.getId(), familyId -> {
+            var currentTime = new Date();
+            var newAccessTokenExpirationTime = new Date(currentTime.getTime() + accessExpirationTimeMs);
+            var newRefreshTokenExpirationTime = new Date(currentTime.getTime() + refreshExpirationTimeMs);
+            return getTokens(userFromDb, familyId,
+                    currentTime, newAccessTokenExpirationTime, newRefreshTokenExpirationTime);
+        });
     }
 
     /**
      * Helper method to generate access and refresh tokens.
+     * <p>
+     * Both tokens carry the user's token version. The access token additionally carries the username and role
+     * used by the stateless authorization mode. Both are signed with the active key of the {@link TokenKeyRing}
+     * and name it in the {@code kid} header. The refresh token carries its family and is registered
+     * in the {@link RefreshTokenService}.
+     * </p>
      *
-     * @param userId                     the user ID associated with the tokens
+     * @param user                       the user the tokens are issued for
+     * @param familyId                   the family of the refresh token
      * @param currentTime                the current time of token creation
      * @param accessTokenExpirationTime  the expiration time of the access token
      * @param refreshTokenExpirationTime the expiration time of the refresh token
      * @return the generated {@link TokensDto} containing the access and refresh tokens
      */
-    private TokensDto getTokens(Long userId, Date currentTime, Date accessTokenExpirationTime, Date refreshTokenExpirationTime) {
+    private TokensDto getTokens(
+            UserEntity user, String familyId,
+            Date currentTime, Date accessTokenExpirationTime, Date refreshTokenExpirationTime) {
+
+        var signingKey = tokenKeyRing.signingKey();
 
         var accessToken = Jwts
                 .builder()
-                .subject(userId + "")
+                .header().keyId(signingKey.kid()).and()
+                .id(UUID.randomUUID().toString())
+                .subject(user.getId() + "")
                 .expiration(accessTokenExpirationTime)
                 .issuedAt(currentTime)
-                .signWith(secretKey)
+                .claim(USERNAME_CLAIM, user.getUsername())
+                .claim(ROLE_CLAIM, user.getRole().name())
+                .claim(TOKEN_VERSION_CLAIM, user.getTokenVersion())
+                .signWith(signingKey.key())
                 .compact();
 
+        var refreshTokenId = UUID.randomUUID().toString();
         var refreshToken = Jwts
                 .builder()
-                .subject(userId + "")
+                .header().keyId(signingKey.kid()).and()
+                .id(refreshTokenId)
+                .subject(user.getId() + "")
                 .expiration(refreshTokenExpirationTime)
                 .issuedAt(currentTime)
                 .claim(accessTokenExpirationTimeMsProperty, accessTokenExpirationTime.getTime())
-                .signWith(secretKey)
+                .claim(TOKEN_VERSION_CLAIM, user.getTokenVersion())
+                .claim(FAMILY_CLAIM, familyId)
+                .signWith(signingKey.key())
                 .compact();
 
+        refreshTokenService.register(
+                refreshTokenId, familyId, user.getId(), refreshTokenExpirationTime.getTime());
         return new TokensDto(accessToken, refreshToken);
     }
 
     /**
      * Helper method to parse claims from the token.
+     * <p>
+     * The claims are verified once per token and then served from the {@link VerifiedClaimsCache}.
+     * </p>
      *
      * @param token the JWT token
      * @return the claims parsed from the token
      */
     private Claims claims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return verifiedClaimsCache.claims(token);
     }
 
     /**
@@ -191,6 +284,25 @@ public class TokenServiceImpl implements TokenService {
         return Long.parseLong(claims(token).getSubject());
     }
 
+    /**
+     * Revokes the token until its expiration.
+     *
+     * @param token the access or refresh token to revoke
+     */
+    @Override
+    public void revoke(String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+
+        try {
+            var claims = claims(token);
+            tokenRevocationService.revoke(claims.getId(), claims.getExpiration().getTime());
+        } catch (JwtException | IllegalArgumentException e) {
+            // Invalid or expired tokens are rejected anyway, there is nothing to revoke
+        }
+    }
+
     public void setCookie(TokensDto tokens, HttpServletResponse response) {
 
         var accesTokenCookie = new Cookie("AccessToken", tokens.accessToken());
@@ -0,0 +1,113 @@
+package com.app.security.throttle;
+
+import com.app.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles login attempts per username and per client address.
+ * <p>
+ * The check runs before the user is loaded and the password is verified, so credential-stuffing traffic is
+ * rejected without touching the database or the password hashing pool. Rejected attempts are counted under
+ * {@code login.throttle.rejected}, the number of tracked keys is published as {@code login.throttle.keys}.
+ * </p>
+ * <p>
+ * Only failed attempts count: the attempt taken by {@link #check(String, String)} is given back by
+ * {@link #succeeded(String, String)}, so a user logging in correctly is never locked out, and neither is
+ * the account by someone who merely knows the username and keeps logging in with it.
+ * </p>
+ */
+@Slf4j
+@Component
+public class LoginThrottle {
+
+    private final TokenBucketLimiter usernameLimiter;
+    private final TokenBucketLimiter addressLimiter;
+    private final Counter usernameRejected;
+    private final Counter addressRejected;
+
+    /**
+     * Constructs a new {@link LoginThrottle} and registers its meters.
+     *
+     * @param meterRegistry          the registry the throttling statistics are published to
+     * @param usernameBurst          the number of attempts allowed at once for one username
+     * @param usernameRefillPeriodMs the time after which one more attempt is allowed for one username
+     * @param addressBurst           the number of attempts allowed at once from one client address
+     * @param addressRefillPeriodMs  the time after which one more attempt is allowed from one client address
+     */
+    public LoginThrottle(
+            MeterRegistry meterRegistry,
+            @Value("${login.throttle.username.burst}") int usernameBurst,
+            @Value("${login.throttle.username.refill-period-ms}") long usernameRefillPeriodMs,
+            @Value("${login.throttle.address.burst}") int addressBurst,
+            @Value("${login.throttle.address.refill-period-ms}") long addressRefillPeriodMs) {
+        this.usernameLimiter = new TokenBucketLimiter(usernameBurst, Duration.ofMillis(usernameRefillPeriodMs));
+        this.addressLimiter = new TokenBucketLimiter(addressBurst, Duration.ofMillis(addressRefillPeriodMs));
+
+        this.usernameRejected = Counter.builder("login.throttle.rejected").tag("scope", "username")
+                .register(meterRegistry);
+        this.addressRejected = Counter.builder("login.throttle.rejected").tag("scope", "address")
+                .register(meterRegistry);
+        Gauge.builder("login.throttle.keys", usernameLimiter, TokenBucketLimiter::size).tag("scope", "username")
+                .register(meterRegistry);
+        Gauge.builder("login.throttle.keys", addressLimiter, TokenBucketLimiter::size).tag("scope", "address")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one login attempt for the client address and for the username.
+     *
+     * @param username the username from the login request
+     * @param address  the client address
+     * @throws TooManyRequestsException if either the client address or the username is throttled
+     */
+    public void check(String username, String address) {
+        var addressWait = addressLimiter.tryAcquire(address);
+        if (addressWait > 0) {
+            addressRejected.increment();
+            throw tooManyAttempts(addressWait);
+        }
+
+        var usernameWait = usernameLimiter.tryAcquire(username == null ? "" : username);
+        if (usernameWait > 0) {
+            usernameRejected.increment();
+            throw tooManyAttempts(usernameWait);
+        }
+    }
+
+    /**
+     * Gives back the attempt taken for a login that succeeded.
+     *
+     * @param username the username from the login request
+     * @param address  the client address
+     */
+    public void succeeded(String username, String address) {
+        addressLimiter.release(address);
+        usernameLimiter.release(username == null ? "" : username);
+    }
+
+    /**
+     * Drops keys which were not used long enough for their bucket to refill.
+     */
+    @Scheduled(fixedDelayString = "${login.throttle.sweep-interval-ms}")
+    public void evictIdle() {
+        var evicted = usernameLimiter.evictIdle() + addressLimiter.evictIdle();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle login throttle keys", evicted);
+        }
+    }
+
+    private static TooManyRequestsException tooManyAttempts(long waitNanos) {
+        var nanosPerSecond = TimeUnit.SECONDS.toNanos(1);
+        var retryAfterSeconds = (waitNanos + nanosPerSecond - 1) / nanosPerSecond;
+        return new TooManyRequestsException("Too many login attempts, try again later.", retryAfterSeconds);
+    }
+}
@@ -0,0 +1,114 @@
+package com.app.security.throttle;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free, per-key token bucket limiter.
+ * <p>
+ * Each key holds a single {@link AtomicLong} with its theoretical arrival time (the generic cell rate algorithm),
+ * which is equivalent to a token bucket of {@code burst} tokens refilled one token per {@code refillPeriod}.
+ * Acquiring a token is a compare-and-set on that one value, so threads contend only when they hit the same key,
+ * and the {@link ConcurrentHashMap} holding the keys is striped internally. There is no global lock.
+ * </p>
+ * <p>
+ * A key whose bucket is full again carries no state worth keeping, so {@link #evictIdle()} drops it.
+ * </p>
+ */
+public class TokenBucketLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new {@link TokenBucketLimiter} using {@link System#nanoTime()} as its clock.
+     *
+     * @param burst        the number of requests allowed at once for a single key
+     * @param refillPeriod the time after which one more request is allowed
+     */
+    public TokenBucketLimiter(int burst, Duration refillPeriod) {
+        this(burst, refillPeriod, System::nanoTime);
+    }
+
+    /**
+     * Constructs a new {@link TokenBucketLimiter} with the given clock.
+     *
+     * @param burst        the number of requests allowed at once for a single key
+     * @param refillPeriod the time after which one more request is allowed
+     * @param nanoClock    the monotonic clock in nanoseconds
+     * @throws IllegalArgumentException if the burst or the refill period is not positive
+     */
+    public TokenBucketLimiter(int burst, Duration refillPeriod, LongSupplier nanoClock) {
+        if (burst <= 0 || refillPeriod.isNegative() || refillPeriod.isZero()) {
+            throw new IllegalArgumentException("Burst and refill period must be positive");
+        }
+        this.emissionIntervalNanos = refillPeriod.toNanos();
+        this.toleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Tries to take a token for the given key.
+     *
+     * @param key the throttled key, e.g. a username or a client address
+     * @return {@code 0} if the request is allowed, otherwise the number of nanoseconds until it would be
+     */
+    public long tryAcquire(String key) {
+        var now = nanoClock.getAsLong();
+        var bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+
+        while (true) {
+            var arrival = bucket.get();
+            var theoreticalArrival = Math.max(arrival, now);
+            var waitNanos = theoreticalArrival - toleranceNanos - now;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (bucket.compareAndSet(arrival, theoreticalArrival + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token previously taken for the given key, e.g. when the request turned out not to count.
+     * The bucket never holds more than its burst.
+     *
+     * @param key the throttled key
+     */
+    public void release(String key) {
+        var bucket = buckets.get(key);
+        if (bucket == null) {
+            return;
+        }
+
+        var now = nanoClock.getAsLong();
+        bucket.accumulateAndGet(now, (arrival, current) -> Math.max(arrival - emissionIntervalNanos, current));
+    }
+
+    /**
+     * Removes keys whose bucket has been refilled completely.
+     *
+     * @return the number of removed keys
+     */
+    public int evictIdle() {
+        var now = nanoClock.getAsLong();
+        var before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() <= now);
+        return Math.max(before - buckets.size(), 0);
+    }
+
+    /**
+     * Returns the number of tracked keys.
+     *
+     * @return the number of keys
+     */
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,38 @@
+package com.app.service;
+
+import com.app.model.LedgerReason;
+
+import java.time.LocalDateTime;
+
+/**
+ * Service keeping the append-only ledger of holiday balance changes.
+ */
+public interface HolidayBalanceService {
+
+    /**
+     * Records a change of a user's holiday balance as part of the current transaction.
+     *
+     * @param userId    ID of the user
+     * @param delta     Number of holiday hours added to the balance; negative when hours are taken
+     * @param reason    Reason of the change
+     * @param holidayId ID of the holiday request causing the change, or {@code null} if none does
+     */
+    void record(Long userId, long delta, LedgerReason reason, Long holidayId);
+
+    /**
+     * Returns the current holiday balance of a user according to the ledger.
+     *
+     * @param userId ID of the user
+     * @return The balance in holiday hours
+     */
+    long balance(Long userId);
+
+    /**
+     * Returns the holiday balance of a user at a point in time according to the ledger.
+     *
+     * @param userId ID of the user
+     * @param time   The point in time; changes recorded before it are included
+     * @return The balance in holiday hours
+     */
+    long balanceAsOf(Long userId, LocalDateTime time);
+}
@@ -1,5 +1,9 @@
 package com.app.service;
 
+import com.app.controller.dto.BatchItemResultDto;
+import com.app.controller.dto.PageDto;
+import com.app.controller.dto.holiday.BatchCreateHolidayDto;
+import com.app.controller.dto.holiday.BatchStatusChangeDto;
 import com.app.controller.dto.holiday.CreateHolidayDto;
 import com.app.controller.dto.holiday.HolidayDto;
 import com.app.controller.dto.holiday.HolidaySpecificationDto;
@@ -14,10 +18,19 @@ public interface HolidayService {
      * Creates a new holiday request.
      *
      * @param createHolidayDto DTO containing the holiday details to be created
-     * @param token            Authentication token of the user creating the holiday
+     * @param userId           ID of the authenticated user creating the holiday
      * @return The ID of the created holiday
      */
-    Long createHoliday(CreateHolidayDto createHolidayDto, String token);
+    Long createHoliday(CreateHolidayDto createHolidayDto, Long userId);
+
+    /**
+     * Creates many holiday requests, for one or more users, in a single transaction.
+     * Items that fail validation, overlap another holiday or exceed the user's balance are skipped.
+     *
+     * @param batchCreateHolidayDtos DTOs containing the user and the details of each holiday
+     * @return The result of every item, in request order
+     */
+    List<BatchItemResultDto> createHolidays(List<BatchCreateHolidayDto> batchCreateHolidayDtos);
 
     /**
      * Changes the status of an existing holiday request.
@@ -28,6 +41,15 @@ public interface HolidayService {
      */
     Long changeStatus(Long id, Status status);
 
+    /**
+     * Changes the status of many holiday requests at once.
+     * Requests that do not exist or cannot move to the status are skipped.
+     *
+     * @param batchStatusChangeDto DTO containing the IDs of the holiday requests and the new status
+     * @return The result of every ID, in request order
+     */
+    List<BatchItemResultDto> changeStatuses(BatchStatusChangeDto batchStatusChangeDto);
+
     /**
      * Retrieves a holiday DTO by its ID.
      *
@@ -37,20 +59,23 @@ public interface HolidayService {
     HolidayDto getHolidayDto(Long id);
 
     /**
-     * Retrieves a list of holidays matching the provided specification.
+     * Retrieves one page of holidays matching the provided specification, ordered by start date and ID.
      *
-     * @param holidaySpecificationDto DTO containing criteria to filter holidays
-     * @return A list of HolidayDto matching the specification
+     * @param holidaySpecificationDto DTO containing criteria to filter holidays and the page to read
+     * @return A page of HolidayDto matching the specification
      */
-    List<HolidayDto> getHolidays(HolidaySpecificationDto holidaySpecificationDto);
+    PageDto<HolidayDto> getHolidays(HolidaySpecificationDto holidaySpecificationDto);
 
     /**
-     * Retrieves a list of holidays for the authenticated user between specified dates.
+     * Retrieves one page of holidays for the authenticated user between specified dates.
      *
-     * @param token     Authentication token of the user
+     * @param userId    ID of the authenticated user
      * @param startDate The start date/time to filter holidays (inclusive)
      * @param endDate   The end date/time to filter holidays (inclusive)
-     * @return A list of HolidayDto within the specified date range for the user
+     * @param cursor    The cursor returned with the previous page, or null for the first page
+     * @param limit     The maximum number of holidays in the page, or null for the default
+     * @return A page of HolidayDto within the specified date range for the user
      */
-    List<HolidayDto> getHolidaysByDate(String token, LocalDateTime startDate, LocalDateTime endDate);
+    PageDto<HolidayDto> getHolidaysByDate(
+            Long userId, LocalDateTime startDate, LocalDateTime endDate, String cursor, Integer limit);
 }
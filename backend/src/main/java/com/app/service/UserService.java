@@ -1,18 +1,18 @@
 package com.app.service;
 
+import com.app.controller.dto.PageDto;
 import com.app.controller.dto.user.*;
-import com.app.model.Role;
 import java.util.List;
 
 public interface UserService {
 
     /**
-     * Retrieves the currently logged-in user's details based on the provided token.
+     * Retrieves the currently logged-in user's details.
      *
-     * @param token Authentication token of the current user
+     * @param userId ID of the authenticated user
      * @return UserDto containing information about the logged-in user
      */
-    UserDto getActualLoginUser(String token);
+    UserDto getActualLoginUser(Long userId);
 
     /**
      * Retrieves a user by their unique ID.
@@ -31,12 +31,12 @@ public interface UserService {
     Long createUser(CreateUserDto createUserDto);
 
     /**
-     * Retrieves a list of users matching the specified criteria.
+     * Retrieves one sorted page of users matching the given specification.
      *
-     * @param userSpecificationDto DTO containing user filter criteria
-     * @return List of UserDto matching the criteria
+     * @param userSpecificationDto DTO containing the filtering criteria, the sort and the page to read
+     * @return a page of users matching the criteria
      */
-    List<UserDto> getUsers(UserSpecificationDto userSpecificationDto);
+    PageDto<UserDto> getUsers(UserSpecificationDto userSpecificationDto);
 
     /**
      * Activates a user account using the provided activation token.
@@ -46,14 +46,6 @@ public interface UserService {
      */
     Long activateUser(UserActivationTokenDto userActivationTokenDto);
 
-    /**
-     * Retrieves the role of the currently logged-in user based on the token.
-     *
-     * @param token Authentication token of the current user
-     * @return Role of the logged-in user
-     */
-    Role getActualLoginRole(String token);
-
     /**
      * Refreshes the email verification token for a user.
      *
@@ -66,10 +58,10 @@ public interface UserService {
      * Changes the password of the currently authenticated user.
      *
      * @param changePasswordDto DTO containing current and new password details
-     * @param token             Authentication token of the current user
+     * @param userId            ID of the authenticated user
      * @return The ID of the user whose password was changed
      */
-    Long changePassword(ChangePasswordDto changePasswordDto, String token);
+    Long changePassword(ChangePasswordDto changePasswordDto, Long userId);
 
     /**
      * Initiates a lost password process for a user by their email.
@@ -91,10 +83,10 @@ public interface UserService {
      * Changes the email address of the currently authenticated user.
      *
      * @param newEmailDto DTO containing current password and new email
-     * @param token       Authentication token of the current user
+     * @param userId      ID of the authenticated user
      * @return The ID of the user whose email was changed
      */
-    Long changeEmail(NewEmailDto newEmailDto, String token);
+    Long changeEmail(NewEmailDto newEmailDto, Long userId);
 
     /**
      * Updates user details such as role and holiday hours.
@@ -108,17 +100,17 @@ public interface UserService {
      * Deletes the currently logged-in user (soft delete).
      * Admin users cannot be deleted.
      *
-     * @param token Authentication token of the current user
+     * @param userId ID of the authenticated user
      * @return The ID of the deleted user
      */
-    Long deleteUser(String token);
+    Long deleteUser(Long userId);
 
     /**
      * Deletes a user by ID if the currently logged-in user has admin privileges.
      *
-     * @param userId The ID of the user to delete
-     * @param token  Authentication token of the current user
+     * @param userId      The ID of the user to delete
+     * @param loginUserId ID of the authenticated user
      * @return The ID of the deleted user
      */
-    Long deleteUser(Long userId, String token);
+    Long deleteUser(Long userId, Long loginUserId);
 }
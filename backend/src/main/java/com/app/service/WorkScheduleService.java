@@ -0,0 +1,27 @@
+package com.app.service;
+
+import com.app.controller.dto.user.WorkScheduleDto;
+
+import java.time.LocalDateTime;
+
+public interface WorkScheduleService {
+
+    /**
+     * Sets the weekly working hours of a user from the given date on.
+     * An existing schedule of the user with the same effective date is replaced.
+     *
+     * @param workScheduleDto DTO containing the user, the effective date and the hours per day of the week
+     * @return The ID of the saved schedule
+     */
+    Long setSchedule(WorkScheduleDto workScheduleDto);
+
+    /**
+     * Calculates the number of holiday hours a user is charged between two timestamps.
+     *
+     * @param userId    ID of the user
+     * @param startTime Start date and time of the holiday
+     * @param endTime   End date and time of the holiday
+     * @return Number of holiday hours according to the user's work schedule
+     */
+    long hoursBetween(Long userId, LocalDateTime startTime, LocalDateTime endTime);
+}
@@ -0,0 +1,70 @@
+package com.app.service.calendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Work schedule of one user compiled from all its effective dates.
+ * <p>
+ * Each period holds the {@link WeeklyHours} applying from its start until the start of the next period.
+ * The hours of a range are summed per period in constant time; the hours of public holidays falling
+ * into the range are subtracted using the per-day-of-week holiday counts of the {@link WorkingCalendar}.
+ * </p>
+ *
+ * @param starts the first day of every period, the earliest first
+ * @param weeks  the weekly hours of every period
+ */
+public record CompiledWorkSchedule(List<LocalDate> starts, List<WeeklyHours> weeks) {
+
+    /**
+     * Returns the working hours of the given day, {@code 0} on public holidays.
+     *
+     * @param date     the date
+     * @param calendar the calendar providing public holidays
+     * @return the working hours of the day
+     */
+    public long hoursOn(LocalDate date, WorkingCalendar calendar) {
+        return calendar.isPublicHoliday(date) ? 0 : weeks.get(period(date)).hoursOn(date.getDayOfWeek());
+    }
+
+    /**
+     * Sums the working hours of the range {@code [from, to)}, excluding public holidays.
+     *
+     * @param from     the first day of the range, inclusive
+     * @param to       the day after the range, exclusive
+     * @param calendar the calendar providing public holidays
+     * @return the working hours in the range
+     */
+    public long hoursBetween(LocalDate from, LocalDate to, WorkingCalendar calendar) {
+        var total = 0L;
+        for (int period = period(from); period < starts.size() && starts.get(period).isBefore(to); period++) {
+            var periodFrom = from.isAfter(starts.get(period)) ? from : starts.get(period);
+            var periodTo = period + 1 < starts.size() && starts.get(period + 1).isBefore(to) ? starts.get(period + 1) : to;
+            var weeklyHours = weeks.get(period);
+
+            total += weeklyHours.hoursBetween(periodFrom, periodTo);
+            for (var dayOfWeek : DayOfWeek.values()) {
+                var dayHours = weeklyHours.hoursOn(dayOfWeek);
+                if (dayHours != 0) {
+                    total -= dayHours * calendar.publicHolidaysBetween(periodFrom, periodTo, dayOfWeek);
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Finds the period the given date belongs to.
+     *
+     * @param date the date
+     * @return the index of the last period starting on or before the date
+     */
+    private int period(LocalDate date) {
+        var period = 0;
+        while (period + 1 < starts.size() && !starts.get(period + 1).isAfter(date)) {
+            period++;
+        }
+        return period;
+    }
+}
@@ -0,0 +1,65 @@
+package com.app.service.calendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Working hours of every day of the week, compiled for constant time range sums.
+ * <p>
+ * Next to the hours of each day a prefix sum over two consecutive weeks is kept, so the hours of any range
+ * are the hours of its full weeks plus one prefix difference for the remaining days.
+ * Public holidays are not taken into account here, see {@link CompiledWorkSchedule}.
+ * </p>
+ */
+public final class WeeklyHours {
+
+    private static final int DAYS_PER_WEEK = 7;
+
+    private final int[] hours;
+    private final int[] hoursBefore = new int[2 * DAYS_PER_WEEK + 1];
+
+    /**
+     * Constructs new {@link WeeklyHours}.
+     *
+     * @param hours the working hours indexed by {@link DayOfWeek#ordinal()}
+     * @throws IllegalArgumentException if not exactly seven values are given
+     */
+    public WeeklyHours(int[] hours) {
+        if (hours.length != DAYS_PER_WEEK) {
+            throw new IllegalArgumentException("Weekly hours need exactly seven values");
+        }
+        this.hours = Arrays.copyOf(hours, DAYS_PER_WEEK);
+        for (int day = 0; day < 2 * DAYS_PER_WEEK; day++) {
+            hoursBefore[day + 1] = hoursBefore[day] + this.hours[day % DAYS_PER_WEEK];
+        }
+    }
+
+    /**
+     * Returns the working hours of the given day of the week.
+     *
+     * @param dayOfWeek the day of the week
+     * @return the working hours
+     */
+    public int hoursOn(DayOfWeek dayOfWeek) {
+        return hours[dayOfWeek.ordinal()];
+    }
+
+    /**
+     * Sums the working hours of the range {@code [from, to)}.
+     *
+     * @param from the first day of the range, inclusive
+     * @param to   the day after the range, exclusive
+     * @return the working hours in the range, {@code 0} if the range is empty
+     */
+    public long hoursBetween(LocalDate from, LocalDate to) {
+        var days = to.toEpochDay() - from.toEpochDay();
+        if (days <= 0) {
+            return 0;
+        }
+        var firstDay = from.getDayOfWeek().ordinal();
+        var remainder = (int) (days % DAYS_PER_WEEK);
+        return days / DAYS_PER_WEEK * hoursBefore[DAYS_PER_WEEK]
+                + hoursBefore[firstDay + remainder] - hoursBefore[firstDay];
+    }
+}
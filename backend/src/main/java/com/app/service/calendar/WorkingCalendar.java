@@ -0,0 +1,294 @@
+package com.app.service.calendar;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Calendar of working days used to charge holiday requests.
+ * <p>
+ * Every day of the configured year range is one bit of a precomputed bitset: set for working days, clear for
+ * weekend days and public holidays. Next to the bitset a prefix count of working days before every 64-bit word
+ * is kept, so the number of working days between two dates is two lookups and two popcounts,
+ * independent of the length of the range.
+ * </p>
+ * <p>
+ * Public holidays are loaded from a CSV file (an ISO date in the first column) or from an iCalendar file
+ * (the {@code DTSTART} of every event). They are additionally kept as sorted arrays per day of the week,
+ * so a {@link CompiledWorkSchedule} with working days differing from the default weekend can subtract them
+ * with a binary search.
+ * </p>
+ */
+@Slf4j
+@Component
+public class WorkingCalendar {
+
+    private static final DateTimeFormatter ICS_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final long hoursPerDay;
+    private final LocalDate firstDay;
+    private final int dayCount;
+    private final long[] workingDays;
+    private final int[] workingDaysBeforeWord;
+    private final long[][] publicHolidaysByDayOfWeek = new long[DayOfWeek.values().length][];
+    private final WeeklyHours defaultWeeklyHours;
+
+    /**
+     * Constructs a new {@link WorkingCalendar} and precomputes all working days of the year range.
+     *
+     * @param firstYear    the first year covered by the calendar
+     * @param lastYear     the last year covered by the calendar
+     * @param weekendDays  the days of the week which are never working days
+     * @param holidaysFile the CSV or iCalendar file listing public holidays
+     * @param hoursPerDay  the number of hours charged for a working day
+     */
+    public WorkingCalendar(
+            @Value("${calendar.first-year}") int firstYear,
+            @Value("${calendar.last-year}") int lastYear,
+            @Value("${calendar.weekend-days}") List<DayOfWeek> weekendDays,
+            @Value("${calendar.holidays-file}") Resource holidaysFile,
+            @Value("${calendar.hours-per-day}") long hoursPerDay) {
+        if (firstYear > lastYear) {
+            throw new IllegalArgumentException("Calendar first year cannot be after the last year");
+        }
+
+        this.hoursPerDay = hoursPerDay;
+        this.firstDay = LocalDate.of(firstYear, 1, 1);
+        this.dayCount = (int) ChronoUnit.DAYS.between(firstDay, LocalDate.of(lastYear + 1, 1, 1));
+        this.workingDays = new long[(dayCount + 63) >>> 6];
+        this.workingDaysBeforeWord = new int[workingDays.length + 1];
+
+        var holidays = loadHolidays(holidaysFile);
+        var weekend = Set.copyOf(weekendDays);
+        var day = firstDay;
+        for (int index = 0; index < dayCount; index++, day = day.plusDays(1)) {
+            if (!weekend.contains(day.getDayOfWeek()) && !holidays.contains(day)) {
+                workingDays[index >>> 6] |= 1L << (index & 63);
+            }
+        }
+        for (int word = 0; word < workingDays.length; word++) {
+            workingDaysBeforeWord[word + 1] = workingDaysBeforeWord[word] + Long.bitCount(workingDays[word]);
+        }
+        for (var dayOfWeek : DayOfWeek.values()) {
+            publicHolidaysByDayOfWeek[dayOfWeek.ordinal()] = holidays.stream()
+                    .filter(holiday -> holiday.getDayOfWeek() == dayOfWeek)
+                    .mapToLong(LocalDate::toEpochDay)
+                    .sorted()
+                    .toArray();
+        }
+
+        var defaultHours = new int[DayOfWeek.values().length];
+        for (var dayOfWeek : DayOfWeek.values()) {
+            defaultHours[dayOfWeek.ordinal()] = weekend.contains(dayOfWeek) ? 0 : (int) hoursPerDay;
+        }
+        this.defaultWeeklyHours = new WeeklyHours(defaultHours);
+
+        log.info("Working calendar {}-{} built with {} public holidays", firstYear, lastYear, holidays.size());
+    }
+
+    /**
+     * Checks whether the given date is a working day.
+     *
+     * @param date the date
+     * @return {@code true} if the date is neither a weekend day nor a public holiday
+     * @throws IllegalArgumentException if the date is outside the calendar
+     */
+    public boolean isWorkingDay(LocalDate date) {
+        var index = index(date);
+        if (index == dayCount) {
+            throw new IllegalArgumentException("Date %s is outside the working calendar".formatted(date));
+        }
+        return (workingDays[index >>> 6] & (1L << (index & 63))) != 0;
+    }
+
+    /**
+     * Counts the working days in the range {@code [from, to)}.
+     *
+     * @param from the first day of the range, inclusive
+     * @param to   the day after the range, exclusive
+     * @return the number of working days in the range, {@code 0} if the range is empty
+     * @throws IllegalArgumentException if the range is outside the calendar
+     */
+    public long workingDaysBetween(LocalDate from, LocalDate to) {
+        var fromIndex = index(from);
+        var toIndex = index(to);
+        return toIndex <= fromIndex ? 0 : workingDaysBefore(toIndex) - workingDaysBefore(fromIndex);
+    }
+
+    /**
+     * Checks whether the given date is a public holiday.
+     *
+     * @param date the date
+     * @return {@code true} if the date is listed in the public holidays file
+     * @throws IllegalArgumentException if the date is outside the calendar
+     */
+    public boolean isPublicHoliday(LocalDate date) {
+        index(date);
+        return Arrays.binarySearch(publicHolidaysByDayOfWeek[date.getDayOfWeek().ordinal()], date.toEpochDay()) >= 0;
+    }
+
+    /**
+     * Counts the public holidays falling on the given day of the week in the range {@code [from, to)}.
+     *
+     * @param from      the first day of the range, inclusive
+     * @param to        the day after the range, exclusive
+     * @param dayOfWeek the day of the week
+     * @return the number of public holidays
+     * @throws IllegalArgumentException if the range is outside the calendar
+     */
+    public long publicHolidaysBetween(LocalDate from, LocalDate to, DayOfWeek dayOfWeek) {
+        index(from);
+        index(to);
+        var holidays = publicHolidaysByDayOfWeek[dayOfWeek.ordinal()];
+        return Math.max(0, insertionPoint(holidays, to.toEpochDay()) - insertionPoint(holidays, from.toEpochDay()));
+    }
+
+    /**
+     * Returns the weekly hours of a user without own work schedule: the configured hours per day
+     * on every day which is not a weekend day.
+     *
+     * @return the default weekly hours
+     */
+    public WeeklyHours defaultWeeklyHours() {
+        return defaultWeeklyHours;
+    }
+
+    /**
+     * Calculates the number of holiday hours charged between two timestamps using the default weekly hours.
+     *
+     * @param startTime Start date and time of the holiday.
+     * @param endTime   End date and time of the holiday.
+     * @return Number of holiday hours.
+     * @throws IllegalArgumentException if holiday hours per day exceed the working day or the range is outside the calendar.
+     */
+    public long hoursBetween(LocalDateTime startTime, LocalDateTime endTime) {
+        return hoursBetween(startTime, endTime, null);
+    }
+
+    /**
+     * Calculates the number of holiday hours charged between two timestamps.
+     * <p>
+     * A holiday shorter than a day is charged by its hours, at most the working hours of the day it starts on.
+     * A longer holiday is charged the working hours of every day it touches: the days from the start date
+     * on, up to and including the day of the end time if that day is not reached exactly.
+     * Without a schedule the default weekly hours are counted on the precomputed bitset.
+     * </p>
+     *
+     * @param startTime Start date and time of the holiday.
+     * @param endTime   End date and time of the holiday.
+     * @param schedule  the work schedule of the user, or {@code null} for the default weekly hours
+     * @return Number of holiday hours.
+     * @throws IllegalArgumentException if holiday hours per day exceed the working day or the range is outside the calendar.
+     */
+    public long hoursBetween(LocalDateTime startTime, LocalDateTime endTime, CompiledWorkSchedule schedule) {
+        var days = ChronoUnit.DAYS.between(startTime, endTime);
+        if (days == 0) {
+            var hours = ChronoUnit.HOURS.between(startTime, endTime);
+            if (hours > hoursPerDay) {
+                throw new IllegalArgumentException("Wrong hours time for day holiday.");
+            }
+            var date = startTime.toLocalDate();
+            var dayHours = schedule == null
+                    ? (isWorkingDay(date) ? hoursPerDay : 0)
+                    : schedule.hoursOn(date, this);
+            return Math.min(hours, dayHours);
+        }
+
+        var daySlots = startTime.plusDays(days).isBefore(endTime) ? days + 1 : days;
+        var from = startTime.toLocalDate();
+        var to = from.plusDays(daySlots);
+        return schedule == null
+                ? workingDaysBetween(from, to) * hoursPerDay
+                : schedule.hoursBetween(from, to, this);
+    }
+
+    /**
+     * Counts the working days before the given day index.
+     *
+     * @param index the day index, between {@code 0} and {@code dayCount}
+     * @return the number of working days with a lower index
+     */
+    private int workingDaysBefore(int index) {
+        var word = index >>> 6;
+        if (word == workingDays.length) {
+            return workingDaysBeforeWord[word];
+        }
+        return workingDaysBeforeWord[word] + Long.bitCount(workingDays[word] & ((1L << (index & 63)) - 1));
+    }
+
+    /**
+     * Returns the number of values in the sorted array lower than the key.
+     *
+     * @param sorted the sorted array
+     * @param key    the searched value
+     * @return the index of the first value not lower than the key
+     */
+    private static int insertionPoint(long[] sorted, long key) {
+        var index = Arrays.binarySearch(sorted, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Converts the date to its index in the bitset.
+     *
+     * @param date the date
+     * @return the day index, {@code dayCount} for the day after the calendar
+     * @throws IllegalArgumentException if the date is outside the calendar
+     */
+    private int index(LocalDate date) {
+        var index = date.toEpochDay() - firstDay.toEpochDay();
+        if (index < 0 || index > dayCount) {
+            throw new IllegalArgumentException("Date %s is outside the working calendar".formatted(date));
+        }
+        return (int) index;
+    }
+
+    /**
+     * Reads the public holidays from a CSV or iCalendar file.
+     *
+     * @param holidaysFile the file listing public holidays
+     * @return the public holidays, empty if the file does not exist
+     */
+    private static Set<LocalDate> loadHolidays(Resource holidaysFile) {
+        var holidays = new HashSet<LocalDate>();
+        if (holidaysFile == null || !holidaysFile.exists()) {
+            log.warn("Public holidays file not found, only weekends are excluded from working days");
+            return holidays;
+        }
+
+        var iCalendar = holidaysFile.getFilename() != null && holidaysFile.getFilename().endsWith(".ics");
+        try (var reader = new BufferedReader(
+                new InputStreamReader(holidaysFile.getInputStream(), StandardCharsets.UTF_8))) {
+            for (var line = reader.readLine(); line != null; line = reader.readLine()) {
+                line = line.strip();
+                if (iCalendar) {
+                    if (line.startsWith("DTSTART")) {
+                        var value = line.substring(line.indexOf(':') + 1);
+                        holidays.add(LocalDate.parse(value.substring(0, 8), ICS_DATE));
+                    }
+                } else if (!line.isEmpty() && !line.startsWith("#") && !line.startsWith("date")) {
+                    var comma = line.indexOf(',');
+                    holidays.add(LocalDate.parse(comma < 0 ? line : line.substring(0, comma).strip()));
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read public holidays file", e);
+        }
+        return holidays;
+    }
+}
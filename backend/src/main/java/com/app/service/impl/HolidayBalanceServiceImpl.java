@@ -0,0 +1,226 @@
+package com.app.service.impl;
+
+import com.app.controller.dto.user.HolidayBalanceChangedDto;
+import com.app.model.LedgerReason;
+import com.app.persistence.Repository.HolidayBalanceLedgerRepository;
+import com.app.persistence.Repository.HolidayBalanceSnapshotRepository;
+import com.app.persistence.entity.HolidayBalanceLedgerEntity;
+import com.app.persistence.entity.HolidayBalanceSnapshotEntity;
+import com.app.service.HolidayBalanceService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of {@link HolidayBalanceService} backed by an append-only ledger and periodic snapshots.
+ * <p>
+ * Every balance change is inserted as a ledger row in the transaction that causes it; inserts are batched by
+ * Hibernate when a transaction records several. A balance is the latest snapshot before the requested time plus
+ * the deltas recorded before that time which the snapshot does not include. Snapshots are taken periodically
+ * for every user with entries that no snapshot includes yet, up to a cutoff lagging behind the current time.
+ * Every snapshot marks the entries it includes, so an entry whose transaction commits only after a snapshot of
+ * its time was taken is picked up by the next snapshot rather than skipped.
+ * </p>
+ * <p>
+ * Current balances are cached in memory and dropped when a change of the user is committed. Every drop advances
+ * a generation, and a balance read while a change committed is returned but not cached, so a read that started
+ * before the commit cannot put the old balance back.
+ * </p>
+ */
+@Slf4j
+@Service
+@Transactional
+public class HolidayBalanceServiceImpl implements HolidayBalanceService {
+
+    /**
+     * Time before the first ledger entry, used when a user has no snapshot.
+     */
+    private static final LocalDateTime LEDGER_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * Maximum number of users whose latest snapshots are read with one query.
+     */
+    private static final int SNAPSHOT_CHUNK_SIZE = 500;
+
+    private final HolidayBalanceLedgerRepository ledgerRepository;
+    private final HolidayBalanceSnapshotRepository snapshotRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long snapshotLagMillis;
+
+    /**
+     * Current balances by user ID.
+     */
+    private final Map<Long, Long> balances = new ConcurrentHashMap<>();
+
+    /**
+     * Advanced by every eviction.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructs a new {@link HolidayBalanceServiceImpl} and registers its meters.
+     *
+     * @param ledgerRepository   the repository of ledger entries
+     * @param snapshotRepository the repository of balance snapshots
+     * @param eventPublisher     the publisher of balance change events
+     * @param meterRegistry      the registry the cache size is published to
+     * @param snapshotLagMillis  how far snapshots lag behind the current time, in milliseconds
+     */
+    public HolidayBalanceServiceImpl(
+            HolidayBalanceLedgerRepository ledgerRepository,
+            HolidayBalanceSnapshotRepository snapshotRepository,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${holidays.balance.snapshot-lag-ms}") long snapshotLagMillis) {
+        this.ledgerRepository = ledgerRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.eventPublisher = eventPublisher;
+        this.snapshotLagMillis = snapshotLagMillis;
+        Gauge.builder("holidays.balance.cache.size", balances, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Records a change of a user's holiday balance as part of the current transaction.
+     * Changes of zero hours are not recorded.
+     *
+     * @param userId    ID of the user
+     * @param delta     Number of holiday hours added to the balance; negative when hours are taken
+     * @param reason    Reason of the change
+     * @param holidayId ID of the holiday request causing the change, or {@code null} if none does
+     */
+    @Override
+    public void record(Long userId, long delta, LedgerReason reason, Long holidayId) {
+        if (delta == 0) {
+            return;
+        }
+        ledgerRepository.save(HolidayBalanceLedgerEntity.builder()
+                .userId(userId)
+                .delta(delta)
+                .reason(reason)
+                .holidayId(holidayId)
+                .createdAt(LocalDateTime.now())
+                .build());
+        eventPublisher.publishEvent(new HolidayBalanceChangedDto(userId));
+    }
+
+    /**
+     * Returns the current holiday balance of a user, from the cache if it is loaded.
+     * <p>
+     * A loaded balance is cached only if no eviction happened while it was read. An eviction racing with the
+     * put either is seen by the check after the put, which then withdraws the entry, or removes the entry itself.
+     * </p>
+     *
+     * @param userId ID of the user
+     * @return The balance in holiday hours
+     */
+    @Override
+    public long balance(Long userId) {
+        var cached = balances.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        var seen = generation.get();
+        var balance = balanceAsOf(userId, LocalDateTime.now());
+        if (seen == generation.get()) {
+            balances.put(userId, balance);
+            if (seen != generation.get()) {
+                balances.remove(userId, balance);
+            }
+        }
+        return balance;
+    }
+
+    /**
+     * Returns the holiday balance of a user at a point in time: the latest snapshot taken no later than the time
+     * plus the deltas recorded before the time that neither this snapshot nor an earlier one includes.
+     *
+     * @param userId ID of the user
+     * @param time   The point in time; changes recorded before it are included
+     * @return The balance in holiday hours
+     */
+    @Override
+    public long balanceAsOf(Long userId, LocalDateTime time) {
+        var snapshot = snapshotRepository.findFirstByUserIdAndTakenAtLessThanEqualOrderByTakenAtDesc(userId, time);
+        var snapshotAt = snapshot.map(HolidayBalanceSnapshotEntity::getTakenAt).orElse(LEDGER_START);
+        var balance = snapshot.map(HolidayBalanceSnapshotEntity::getBalance).orElse(0L);
+
+        return balance + ledgerRepository.sumDeltasAfterSnapshot(userId, snapshotAt, time);
+    }
+
+    /**
+     * Drops the cached balance of a user after a ledger entry has been committed.
+     *
+     * @param holidayBalanceChangedDto the event containing the ID of the user
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void evict(HolidayBalanceChangedDto holidayBalanceChangedDto) {
+        generation.incrementAndGet();
+        balances.remove(holidayBalanceChangedDto.userId());
+    }
+
+    /**
+     * Takes a snapshot of every user with ledger entries that no snapshot includes yet and were recorded before
+     * the current time minus the configured lag, and marks these entries as included.
+     * <p>
+     * The entries are marked before the snapshots are saved; if a concurrent run on another node marked any of
+     * them first, the run fails and its transaction is rolled back, so no entry is counted twice.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${holidays.balance.snapshot-interval-ms}")
+    public void takeSnapshots() {
+        var takenAt = LocalDateTime.now().minusNanos(snapshotLagMillis * 1_000_000);
+        var entries = ledgerRepository.findNotSnapshotted(takenAt);
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        var ids = new ArrayList<Long>(entries.size());
+        var deltas = new HashMap<Long, Long>();
+        for (var row : entries) {
+            ids.add((Long) row[0]);
+            deltas.merge((Long) row[1], ((Number) row[2]).longValue(), Long::sum);
+        }
+
+        for (int from = 0; from < ids.size(); from += SNAPSHOT_CHUNK_SIZE) {
+            var chunk = ids.subList(from, Math.min(from + SNAPSHOT_CHUNK_SIZE, ids.size()));
+            if (ledgerRepository.markSnapshotted(chunk, takenAt) != chunk.size()) {
+                throw new IllegalStateException("Holiday balance entries were snapshotted concurrently.");
+            }
+        }
+
+        var userIds = new ArrayList<>(deltas.keySet());
+        var snapshots = new ArrayList<HolidayBalanceSnapshotEntity>(userIds.size());
+        for (int from = 0; from < userIds.size(); from += SNAPSHOT_CHUNK_SIZE) {
+            var chunk = userIds.subList(from, Math.min(from + SNAPSHOT_CHUNK_SIZE, userIds.size()));
+            var latest = new HashMap<Long, Long>();
+            snapshotRepository.findLatestByUserIds(chunk)
+                    .forEach(snapshot -> latest.put(snapshot.getUserId(), snapshot.getBalance()));
+
+            for (var userId : chunk) {
+                snapshots.add(HolidayBalanceSnapshotEntity.builder()
+                        .userId(userId)
+                        .balance(latest.getOrDefault(userId, 0L) + deltas.get(userId))
+                        .takenAt(takenAt)
+                        .build());
+            }
+        }
+
+        snapshotRepository.saveAll(snapshots);
+        log.debug("Took {} holiday balance snapshots at {}", snapshots.size(), takenAt);
+    }
+}
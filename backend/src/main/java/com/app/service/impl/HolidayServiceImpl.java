@@ -1,27 +1,42 @@
 package com.app.service.impl;
 
+import com.app.controller.dto.BatchItemResultDto;
+import com.app.controller.dto.PageDto;
+import com.app.controller.dto.holiday.BatchCreateHolidayDto;
+import com.app.controller.dto.holiday.BatchStatusChangeDto;
 import com.app.controller.dto.holiday.CreateHolidayDto;
 import com.app.controller.dto.holiday.HolidayDto;
 import com.app.controller.dto.holiday.HolidaySpecificationDto;
 import com.app.persistence.Repository.HolidayRepository;
 import com.app.persistence.Repository.UserRepository;
+import com.app.model.LedgerReason;
 import com.app.model.Status;
+import com.app.exception.ValidationException;
 import com.app.persistence.entity.HolidayEntity;
 import com.app.persistence.specification.FilterSpecification;
-import com.app.persistence.specification.impl.HolidayFilterSpecificationImpl;
+import com.app.persistence.specification.model.HolidayCursor;
 import com.app.persistence.specification.model.HolidaySpecification;
-import com.app.security.service.TokenService;
+import com.app.service.HolidayBalanceService;
 import com.app.service.HolidayService;
+import com.app.service.WorkScheduleService;
+import com.app.service.index.HolidayIntervals;
+import com.app.service.lock.UserLock;
 import com.app.validate.CreateHolidayDtoValidator;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.DayOfWeek;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service responsible for handling business logic related to holidays.
@@ -33,56 +48,172 @@ public class HolidayServiceImpl implements HolidayService {
 
     private final UserRepository userRepository;
     private final HolidayRepository holidayRepository;
-    private final FilterSpecification<HolidayEntity, HolidaySpecification> filterSpecification;
-    private final HolidayFilterSpecificationImpl holidayFilterSpecificationImpl;
-    private final TokenService tokenService;
+    private final FilterSpecification<HolidayDto, HolidaySpecification> holidayFilterSpecification;
     private final CreateHolidayDtoValidator createHolidayDtoValidator;
+    private final WorkScheduleService workScheduleService;
+    private final UserLock userLock;
+    private final HolidayBalanceService holidayBalanceService;
+
+    @Value("${holidays.batch.max-size}")
+    private int batchMaxSize;
+
+    @Value("${holidays.page.default-size}")
+    private int pageDefaultSize;
+
+    @Value("${holidays.page.max-size}")
+    private int pageMaxSize;
 
     /**
      * Creates a new holiday request for a user.
      *
      * @param createHolidayDto Data transfer object containing holiday details.
-     * @param token            Authentication token to identify the user.
+     * @param userID           ID of the authenticated user.
      * @return The ID of the created holiday entity.
      * @throws IllegalArgumentException if the holiday overlaps with an existing one or
      *                                  the user doesn't have enough holiday hours.
      * @throws EntityNotFoundException  if the user is not found.
+     * @throws org.springframework.dao.CannotAcquireLockException if another request of the user holds the lock too long.
      */
     @Override
-    public Long createHoliday(CreateHolidayDto createHolidayDto, String token) {
+    public Long createHoliday(CreateHolidayDto createHolidayDto, Long userID) {
         createHolidayDtoValidator.validate(createHolidayDto);
 
-        var userID = tokenService.id(token);
-
-        var userEntity = userRepository
-                .findById(userID)
-                .orElseThrow(() -> new EntityNotFoundException("User not found."));
+        // Serializes requests of the same user on every node, so the checks below see every earlier change
+        var userEntity = userLock.lock(userID);
 
+        // Read under the lock, the stored holidays include the ones created on other nodes
         if (holidayRepository.isHolidayAllow(userID, createHolidayDto.startDate(), createHolidayDto.endDate())) {
             throw new IllegalArgumentException("Holiday already exists.");
         }
 
-        var holidayHours = getHoursBetween(createHolidayDto.startDate(), createHolidayDto.endDate());
+        var holidayHours = getHoursBetween(userID, createHolidayDto.startDate(), createHolidayDto.endDate());
 
-        if (holidayHours > userEntity.getHolidaysHours()) {
+        if (userRepository.debitHolidayHours(userID, holidayHours) == 0) {
             throw new IllegalArgumentException("You have only %s holiday hours, you applied for %s hours."
                     .formatted(userEntity.getHolidaysHours(), holidayHours));
         }
 
-        userRepository.save(userEntity.UserEntityWithHolidays(-holidayHours));
-        var holidayEntity = holidayRepository.save(createHolidayDto.toEntity().withUserEntity(userEntity));
+        var holidayEntity = holidayRepository.save(createHolidayDto.toEntity()
+                .withUserEntity(userEntity)
+                .withHours(holidayHours));
+        holidayBalanceService.record(userID, -holidayHours, LedgerReason.HOLIDAY_TAKEN, holidayEntity.getId());
 
         return holidayEntity.getId();
     }
 
+    /**
+     * Creates many holiday requests, for one or more users, in a single transaction.
+     * <p>
+     * All users of the batch are locked together before any of them is processed, through
+     * {@link UserLock#lockAll}, which orders the locks so concurrent batches cannot deadlock, and every user's
+     * holiday ranges are read from the database. Overlaps and balances are then checked in memory against
+     * the user's existing holidays and the items of the batch
+     * accepted before, every user's balance is debited with one statement and all holidays are inserted
+     * together, so Hibernate sends them as JDBC batches.
+     * </p>
+     *
+     * @param batchCreateHolidayDtos DTOs containing the user and the details of each holiday.
+     * @return The result of every item, in request order.
+     * @throws IllegalArgumentException if the batch is empty or larger than the configured maximum.
+     */
+    @Override
+    public List<BatchItemResultDto> createHolidays(List<BatchCreateHolidayDto> batchCreateHolidayDtos) {
+        if (batchCreateHolidayDtos == null || batchCreateHolidayDtos.isEmpty()) {
+            throw new IllegalArgumentException("Batch cannot be empty.");
+        }
+        if (batchCreateHolidayDtos.size() > batchMaxSize) {
+            throw new IllegalArgumentException("Batch cannot contain more than %s holidays.".formatted(batchMaxSize));
+        }
+
+        var results = new BatchItemResultDto[batchCreateHolidayDtos.size()];
+        var indexesByUser = new TreeMap<Long, List<Integer>>();
+        for (int i = 0; i < batchCreateHolidayDtos.size(); i++) {
+            var item = batchCreateHolidayDtos.get(i);
+            try {
+                if (item == null || item.userId() == null) {
+                    throw new IllegalArgumentException("User cannot be null.");
+                }
+                createHolidayDtoValidator.validate(item.toCreateHolidayDto());
+                indexesByUser.computeIfAbsent(item.userId(), userId -> new ArrayList<>()).add(i);
+            } catch (IllegalArgumentException | ValidationException e) {
+                results[i] = BatchItemResultDto.failure(i, e.getMessage());
+            }
+        }
+
+        var users = userLock.lockAll(indexesByUser.keySet());
+        var holidays = new ArrayList<HolidayEntity>();
+        var holidayIndexes = new ArrayList<Integer>();
+        for (var entry : indexesByUser.entrySet()) {
+            var userId = entry.getKey();
+            var userEntity = users.get(userId);
+            if (userEntity == null) {
+                entry.getValue().forEach(i -> results[i] = BatchItemResultDto.failure(i, "User not found."));
+                continue;
+            }
+            // Read under the lock, the stored ranges include the holidays created on other nodes
+            var stored = new HolidayIntervals(holidayRepository.findIntervalsByUserId(userId));
+
+            // Accepted holidays of the batch never overlap each other, so they can be keyed by start
+            var accepted = new TreeMap<LocalDateTime, LocalDateTime>();
+            var balance = userEntity.getHolidaysHours();
+            var debited = 0L;
+            for (var i : entry.getValue()) {
+                var item = batchCreateHolidayDtos.get(i);
+                try {
+                    var previous = accepted.floorEntry(item.endDate());
+                    if ((previous != null && !previous.getValue().isBefore(item.startDate()))
+                            || stored.overlaps(item.startDate(), item.endDate())) {
+                        throw new IllegalArgumentException("Holiday already exists.");
+                    }
+
+                    var holidayHours = getHoursBetween(userId, item.startDate(), item.endDate());
+                    if (holidayHours > balance - debited) {
+                        throw new IllegalArgumentException("You have only %s holiday hours, you applied for %s hours."
+                                .formatted(balance - debited, holidayHours));
+                    }
+
+                    accepted.put(item.startDate(), item.endDate());
+                    debited += holidayHours;
+                    holidays.add(item.toCreateHolidayDto().toEntity()
+                            .withUserEntity(userEntity)
+                            .withHours(holidayHours));
+                    holidayIndexes.add(i);
+                } catch (IllegalArgumentException e) {
+                    results[i] = BatchItemResultDto.failure(i, e.getMessage());
+                }
+            }
+
+            if (debited > 0 && userRepository.debitHolidayHours(userId, debited) == 0) {
+                throw new IllegalStateException("Balance of user %s changed while it was locked.".formatted(userId));
+            }
+        }
+
+        var saved = holidayRepository.saveAll(holidays);
+        for (int i = 0; i < saved.size(); i++) {
+            var holidayEntity = saved.get(i);
+            holidayBalanceService.record(holidayEntity.getUserEntity().getId(), -holidayEntity.getHours(),
+                    LedgerReason.HOLIDAY_TAKEN, holidayEntity.getId());
+            results[holidayIndexes.get(i)] = BatchItemResultDto.success(holidayIndexes.get(i), holidayEntity.getId());
+        }
+
+        return List.of(results);
+    }
+
     /**
      * Changes the status of an existing holiday request.
+     * <p>
+     * The status is changed by a compare-and-set update that only succeeds if the holiday still has the status
+     * it was read with, so concurrent changes of the same holiday take effect once. If another change wins, the
+     * status is read again with a row lock and the transition is re-evaluated. Requesting the status the holiday
+     * already has changes nothing. Holiday hours are returned only by the change that actually rejected the
+     * holiday.
+     * </p>
      *
      * @param id     The ID of the holiday entity.
      * @param status The new status to be set.
      * @return The ID of the updated holiday entity.
-     * @throws IllegalArgumentException if the status parameter is null.
-     * @throws EntityNotFoundException  if the holiday or user is not found.
+     * @throws IllegalArgumentException if the status parameter is null or the transition is not allowed.
+     * @throws EntityNotFoundException  if the holiday is not found.
      */
     @Override
     public Long changeStatus(Long id, Status status) {
@@ -93,18 +224,122 @@ public class HolidayServiceImpl implements HolidayService {
                 .findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Holiday not found."));
 
-        var approvedHolidayEntity = holidayRepository.save(holidayEntity.withStatus(status));
+        while (holidayEntity.getStatus() != status) {
+            if (!holidayEntity.getStatus().canTransitionTo(status)) {
+                throw new IllegalArgumentException("Holiday cannot be changed from %s to %s."
+                        .formatted(holidayEntity.getStatus(), status));
+            }
+            if (holidayRepository.compareAndSetStatus(id, holidayEntity.getStatus(), status) == 1) {
+                applyStatusChange(holidayEntity, status);
+                break;
+            }
+            // Another change won; a locking read sees its committed status
+            holidayEntity = holidayRepository
+                    .findByIdForUpdate(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Holiday not found."));
+        }
 
-        // If the holiday is rejected, return the holiday hours back to the user
-        if (status.equals(Status.REJECTED)) {
-            var userEntity = userRepository.findById(approvedHolidayEntity.getUserEntity().getId())
-                    .orElseThrow(() -> new EntityNotFoundException("User not found."));
+        return id;
+    }
 
-            var holidayHours = getHoursBetween(holidayEntity.getStartDate(), holidayEntity.getEndDate());
-            userRepository.save(userEntity.UserEntityWithHolidays(holidayHours));
+    /**
+     * Changes the status of many holiday requests at once.
+     * <p>
+     * The holidays are read with row locks, the allowed transitions are decided in memory and all of them are
+     * applied with one set-based update guarded by the current statuses. When holidays are rejected, the hours
+     * are returned with one update per user.
+     * </p>
+     *
+     * @param batchStatusChangeDto DTO containing the IDs of the holiday requests and the new status.
+     * @return The result of every ID, in request order.
+     * @throws IllegalArgumentException if the status is null or the batch is empty or larger than the configured maximum.
+     */
+    @Override
+    public List<BatchItemResultDto> changeStatuses(BatchStatusChangeDto batchStatusChangeDto) {
+        if (batchStatusChangeDto == null || batchStatusChangeDto.status() == null) {
+            throw new IllegalArgumentException("Status cannot be null.");
+        }
+        var ids = batchStatusChangeDto.holidayIds();
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Batch cannot be empty.");
+        }
+        if (ids.size() > batchMaxSize) {
+            throw new IllegalArgumentException("Batch cannot contain more than %s holidays.".formatted(batchMaxSize));
         }
+        var status = batchStatusChangeDto.status();
 
-        return approvedHolidayEntity.getId();
+        var holidays = holidayRepository.findAllByIdForUpdate(new HashSet<>(ids)).stream()
+                .collect(Collectors.toMap(HolidayEntity::getId, Function.identity()));
+
+        var errors = new HashMap<Long, String>();
+        var changed = new ArrayList<HolidayEntity>();
+        var expected = EnumSet.noneOf(Status.class);
+        for (var holidayEntity : holidays.values()) {
+            if (holidayEntity.getStatus() == status) {
+                continue;
+            }
+            if (holidayEntity.getStatus().canTransitionTo(status)) {
+                changed.add(holidayEntity);
+                expected.add(holidayEntity.getStatus());
+            } else {
+                errors.put(holidayEntity.getId(), "Holiday cannot be changed from %s to %s."
+                        .formatted(holidayEntity.getStatus(), status));
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            var changedIds = changed.stream().map(HolidayEntity::getId).toList();
+            // The rows are locked, so every holiday read above still has its status
+            if (holidayRepository.compareAndSetStatuses(changedIds, expected, status) != changed.size()) {
+                throw new IllegalStateException("Holiday statuses changed while they were locked.");
+            }
+
+            if (status == Status.REJECTED) {
+                var refunds = new TreeMap<Long, Long>();
+                for (var holidayEntity : changed) {
+                    var userId = holidayEntity.getUserEntity().getId();
+                    var holidayHours = holidayEntity.getHours() != null
+                            ? holidayEntity.getHours()
+                            : getHoursBetween(userId, holidayEntity.getStartDate(), holidayEntity.getEndDate());
+                    refunds.merge(userId, holidayHours, Long::sum);
+                    holidayBalanceService.record(userId, holidayHours, LedgerReason.HOLIDAY_REFUNDED,
+                            holidayEntity.getId());
+                }
+                refunds.forEach(userRepository::creditHolidayHours);
+            }
+        }
+
+        var results = new ArrayList<BatchItemResultDto>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            var id = ids.get(i);
+            if (!holidays.containsKey(id)) {
+                results.add(BatchItemResultDto.failure(i, "Holiday not found."));
+            } else if (errors.containsKey(id)) {
+                results.add(BatchItemResultDto.failure(i, errors.get(id)));
+            } else {
+                results.add(BatchItemResultDto.success(i, id));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Applies the effects of a status change made by this transaction: returns the holiday hours when the
+     * holiday was rejected.
+     *
+     * @param holidayEntity The holiday as it was before the change.
+     * @param status        The new status.
+     */
+    private void applyStatusChange(HolidayEntity holidayEntity, Status status) {
+        var userId = holidayEntity.getUserEntity().getId();
+
+        if (status == Status.REJECTED) {
+            var holidayHours = holidayEntity.getHours() != null
+                    ? holidayEntity.getHours()
+                    : getHoursBetween(userId, holidayEntity.getStartDate(), holidayEntity.getEndDate());
+            userRepository.creditHolidayHours(userId, holidayHours);
+            holidayBalanceService.record(userId, holidayHours, LedgerReason.HOLIDAY_REFUNDED, holidayEntity.getId());
+        }
     }
 
     /**
@@ -124,68 +359,78 @@ public class HolidayServiceImpl implements HolidayService {
     /**
      * Retrieves holidays for a user within a date range.
      *
-     * @param token     Authentication token to identify the user.
+     * @param userId    ID of the authenticated user.
      * @param startDate Start date of the range.
      * @param endDate   End date of the range.
-     * @return List of HolidayDto objects matching the criteria.
+     * @param cursor    Cursor returned with the previous page, or null for the first page.
+     * @param limit     Maximum number of holidays in the page, or null for the default.
+     * @return Page of HolidayDto objects matching the criteria.
      */
     @Override
-    public List<HolidayDto> getHolidaysByDate(String token, LocalDateTime startDate, LocalDateTime endDate) {
-        var userId = tokenService.id(token);
-        return getHolidays(new HolidaySpecificationDto(null, userId, startDate, endDate, null));
+    public PageDto<HolidayDto> getHolidaysByDate(
+            Long userId, LocalDateTime startDate, LocalDateTime endDate, String cursor, Integer limit) {
+        return getHolidays(new HolidaySpecificationDto(null, userId, startDate, endDate, null, cursor, limit, false));
     }
 
     /**
      * Retrieves holidays matching given specification criteria.
      *
-     * @param holidaySpecificationDto Specification DTO with filter criteria.
-     * @return List of HolidayDto objects matching the filter.
-     * @throws IllegalArgumentException if the specification DTO is null.
+     * <p>
+     * Holidays are read in pages ordered by start date and ID, as {@link HolidayDto} projections taking the user ID
+     * from the foreign key, so a page is one statement. A page after the first one is selected by the
+     * keyset of the last holiday of the previous page, so reading any page costs the same. At most the
+     * configured maximum page size is read per request; the total number of matches is only counted on request.
+     * </p>
+     *
+     * @param holidaySpecificationDto Specification DTO with filter criteria and the page to read.
+     * @return Page of HolidayDto objects matching the filter.
+     * @throws IllegalArgumentException if the specification DTO is null, the cursor is malformed
+     *                                  or the limit is not positive.
      */
     @Override
-    public List<HolidayDto> getHolidays(HolidaySpecificationDto holidaySpecificationDto) {
+    public PageDto<HolidayDto> getHolidays(HolidaySpecificationDto holidaySpecificationDto) {
         if (holidaySpecificationDto == null) {
             throw new IllegalArgumentException("HolidaySpecificationDto cannot be null.");
         }
-        return holidayRepository
-                .findAll(holidayFilterSpecificationImpl
-                        .dynamicFilter(holidaySpecificationDto.toHolidaySpecification()))
-                .stream()
-                .map(HolidayEntity::toHolidayDto)
-                .toList();
+        if (holidaySpecificationDto.limit() != null && holidaySpecificationDto.limit() <= 0) {
+            throw new IllegalArgumentException("Limit must be positive.");
+        }
+        var limit = holidaySpecificationDto.limit() == null
+                ? pageDefaultSize
+                : Math.min(holidaySpecificationDto.limit(), pageMaxSize);
+
+        var holidaySpecification = holidaySpecificationDto.toHolidaySpecification();
+        // Reads one extra holiday to find out whether a next page exists
+        var holidays = holidayRepository.fetch(
+                holidayFilterSpecification.dynamicFilter(holidaySpecification), limit + 1);
+
+        String nextCursor = null;
+        if (holidays.size() > limit) {
+            holidays = holidays.subList(0, limit);
+            var last = holidays.get(limit - 1);
+            nextCursor = new HolidayCursor(last.startDate(), last.id()).encode();
+        }
+
+        Long total = null;
+        if (Boolean.TRUE.equals(holidaySpecificationDto.withTotal())) {
+            total = holidayRepository.countMatching(
+                    holidayFilterSpecification.dynamicFilter(holidaySpecification.withoutCursor()));
+        }
+
+        return new PageDto<>(holidays, nextCursor, total);
     }
 
     /**
-     * Calculates the number of holiday hours between two timestamps,
-     * excluding weekends and validating holiday length per day.
+     * Calculates the number of holiday hours between two timestamps according to the user's work schedule,
+     * excluding non-working days and public holidays and validating holiday length per day.
      *
+     * @param userId    ID of the user taking the holiday.
      * @param startTime Start date and time of the holiday.
      * @param endTime   End date and time of the holiday.
      * @return Number of holiday hours.
      * @throws IllegalArgumentException if holiday hours per day exceed 8.
      */
-    private static Long getHoursBetween(LocalDateTime startTime, LocalDateTime endTime) {
-
-        var days = ChronoUnit.DAYS.between(startTime, endTime);
-        if (days == 0) {
-            var hours = ChronoUnit.HOURS.between(startTime, endTime);
-            if (hours > 8) {
-                throw new IllegalArgumentException("Wrong hours time for day holiday.");
-            }
-            return hours;
-        }
-
-        var weeks = days / 7;
-        var daysWithoutWeekends = weeks * 5;
-
-        var fromDay = startTime.plusDays(weeks * 7);
-
-        for (; fromDay.isBefore(endTime); fromDay = fromDay.plusDays(1)) {
-            if (fromDay.getDayOfWeek() != DayOfWeek.SUNDAY && fromDay.getDayOfWeek() != DayOfWeek.SATURDAY) {
-                daysWithoutWeekends++;
-            }
-        }
-
-        return daysWithoutWeekends * 8;
+    private Long getHoursBetween(Long userId, LocalDateTime startTime, LocalDateTime endTime) {
+        return workScheduleService.hoursBetween(userId, startTime, endTime);
     }
 }
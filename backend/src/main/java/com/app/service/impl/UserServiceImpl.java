@@ -1,22 +1,24 @@
 package com.app.service.impl;
 
+import com.app.controller.dto.PageDto;
 import com.app.controller.dto.user.*;
 import com.app.exception.ResourceAlreadyExistException;
 import com.app.exception.ValidationException;
-import com.app.model.Role;
 import com.app.persistence.Repository.UserRepository;
 import com.app.persistence.Repository.VerificationTokenRepository;
 import com.app.persistence.entity.BaseEntity;
-import com.app.persistence.entity.UserEntity;
 import com.app.persistence.specification.FilterSpecification;
+import com.app.persistence.specification.model.UserCursor;
 import com.app.persistence.specification.model.UserSpecification;
-import com.app.security.service.TokenService;
+import com.app.model.LedgerReason;
+import com.app.service.HolidayBalanceService;
 import com.app.service.UserService;
+import com.app.service.lock.UserLock;
 import com.app.validate.Validator;
-import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -27,6 +29,10 @@ import java.util.List;
  * Implementation of {@link UserService} providing user management functionality.
  * This service handles user creation, activation, password management,
  * email changes, user updates, retrieval and deletion operations.
+ * <p>
+ * Changes of a user's account update only their own columns, so they never write back a holiday balance
+ * read before a concurrent debit or refund committed.
+ * </p>
  */
 @Service
 @RequiredArgsConstructor
@@ -37,29 +43,20 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passwordEncoder;
     private final VerificationTokenRepository verificationTokenRepository;
     private final ApplicationEventPublisher eventPublisher;
-    private final CreateAdminUserDto createAdminUserDto;
-    private final TokenService tokenService;
-    private final FilterSpecification<UserEntity, UserSpecification> userFilterSpecification;
+    private final UserLock userLock;
+    private final HolidayBalanceService holidayBalanceService;
+    private final FilterSpecification<UserDto, UserSpecification> userFilterSpecification;
     private final Validator<CreateUserDto> createUserDtovalidator;
     private final Validator<EmailDto> emailDtoValidator;
     private final Validator<ChangePasswordDto> changePasswordDtoValidator;
     private final Validator<NewPasswordDto> newPasswordDtoValidator;
     private final Validator<NewEmailDto> newEmailDtoValidator;
 
-    /**
-     * Initializes the service by saving an admin user on startup.
-     * The password is encoded before saving.
-     */
-    @PostConstruct
-    public void init() {
-
-        if (userRepository.findByUsername(createAdminUserDto.username()).isPresent()) {
-            throw new ResourceAlreadyExistException("Username already exists");
-        }
+    @Value("${users.page.default-size}")
+    private int pageDefaultSize;
 
-        userRepository.save(createAdminUserDto.toUserEntity()
-                .withPassword(passwordEncoder.encode(createAdminUserDto.password())));
-    }
+    @Value("${users.page.max-size}")
+    private int pageMaxSize;
 
     /**
      * Creates a new user with given data.
@@ -113,7 +110,10 @@ public class UserServiceImpl implements UserService {
 
         var userEntity = verificationToken.validate();
         verificationTokenRepository.delete(verificationToken);
-        userEntity.ifPresent(user -> userRepository.save(user.withActivation()));
+        userEntity.ifPresent(user -> {
+            userRepository.activate(user.getId());
+            eventPublisher.publishEvent(new UserChangedDto(user.getUsername()));
+        });
 
         return userEntity.map(BaseEntity::getId).orElseThrow(() ->
                 new ValidationException("Verification token expired"));
@@ -163,18 +163,16 @@ public class UserServiceImpl implements UserService {
      * Validates input and verifies current password before changing.
      *
      * @param changePasswordDto DTO containing current and new password
-     * @param token authentication token of the user
+     * @param userId ID of the authenticated user
      * @return the ID of the user whose password was changed
      * @throws ValidationException if validation fails
      * @throws EntityNotFoundException if user is not found
      * @throws IllegalArgumentException if current password does not match
      */
-    public Long changePassword(ChangePasswordDto changePasswordDto, String token) {
+    public Long changePassword(ChangePasswordDto changePasswordDto, Long userId) {
 
         changePasswordDtoValidator.validate(changePasswordDto);
 
-        var userId = tokenService.id(token.replace("Bearer ", ""));
-
         var userFromDb = userRepository
                 .findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
@@ -183,9 +181,10 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("Wrong password");
         }
 
-        return userRepository.save(userFromDb
-                        .withPassword(passwordEncoder.encode(changePasswordDto.newPassword())))
-                .getId();
+        userRepository.changePassword(userId, passwordEncoder.encode(changePasswordDto.newPassword()));
+        eventPublisher.publishEvent(new UserChangedDto(userFromDb.getUsername()));
+
+        return userId;
     }
 
     /**
@@ -229,8 +228,10 @@ public class UserServiceImpl implements UserService {
         var useFromDb = verificationToken.validate();
 
         verificationTokenRepository.delete(verificationToken);
-        useFromDb.ifPresent(user ->
-                userRepository.save(user.withPassword(passwordEncoder.encode(newPasswordDto.newPassword()))));
+        useFromDb.ifPresent(user -> {
+            userRepository.changePassword(user.getId(), passwordEncoder.encode(newPasswordDto.newPassword()));
+            eventPublisher.publishEvent(new UserChangedDto(user.getUsername()));
+        });
 
         return useFromDb.map(BaseEntity::getId).orElse(null);
     }
@@ -240,18 +241,16 @@ public class UserServiceImpl implements UserService {
      * Validates input and verifies current password before updating.
      *
      * @param newEmailDto DTO containing the current password and new email
-     * @param token authentication token of the user
+     * @param userId ID of the authenticated user
      * @return the ID of the user whose email was changed
      * @throws ValidationException if validation fails
      * @throws EntityNotFoundException if user is not found
      * @throws IllegalArgumentException if current password does not match
      */
-    public Long changeEmail(NewEmailDto newEmailDto, String token) {
+    public Long changeEmail(NewEmailDto newEmailDto, Long userId) {
 
         newEmailDtoValidator.validate(newEmailDto);
 
-        var userId = tokenService.id(token.replace("Bearer ", ""));
-
         var userFromDb = userRepository
                 .findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
@@ -260,7 +259,9 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("Wrong password");
         }
 
-        return userRepository.save(userFromDb.withNewEmail(newEmailDto.newEmail())).getId();
+        userRepository.changeEmail(userId, newEmailDto.newEmail());
+
+        return userId;
     }
 
     /**
@@ -273,60 +274,94 @@ public class UserServiceImpl implements UserService {
     @Override
     public Long updateUser(UpdateUserDto updateUserDto) {
 
-        var userFromDb = userRepository
-                .findById(updateUserDto.userId()).orElseThrow(() -> new EntityNotFoundException("User not found"));
+        var userFromDb = userLock.lock(updateUserDto.userId());
 
-        return userRepository
+        var userId = userRepository
                 .save(userFromDb.withNewRoleAndNewHolidaysHours(updateUserDto.holidayHours(), updateUserDto.role())).getId();
+        holidayBalanceService.record(userId, updateUserDto.holidayHours() - userFromDb.getHolidaysHours(),
+                LedgerReason.ADJUSTMENT, null);
+        eventPublisher.publishEvent(new UserChangedDto(userFromDb.getUsername()));
+
+        return userId;
     }
 
     /**
-     * Retrieves a list of users filtered by the given specification.
+     * Retrieves one sorted page of users filtered by the given specification.
+     * <p>
+     * Only the columns of {@link UserDto} are read. Users are ordered by the requested field and then by ID,
+     * and a page after the first one is selected by the keyset of the last user of the previous page. At most
+     * the configured maximum page size is read; the total number of matches is only counted on request.
+     * </p>
      *
-     * @param userSpecificationDto DTO with user filtering criteria
-     * @return list of users matching the specification
-     * @throws ValidationException if the specification DTO is null
+     * @param userSpecificationDto DTO with user filtering criteria, the sort and the page to read
+     * @return page of users matching the specification
+     * @throws ValidationException      if the specification DTO is null
+     * @throws IllegalArgumentException if the sort field is unknown, the limit is not positive or the cursor is
+     *                                  malformed or belongs to another sort
      */
-    public List<UserDto> getUsers(UserSpecificationDto userSpecificationDto) {
+    public PageDto<UserDto> getUsers(UserSpecificationDto userSpecificationDto) {
 
         if (userSpecificationDto == null) {
             throw new ValidationException("UserSpecificationDto cannot be null");
         }
 
-        return userRepository
-                .findAll(userFilterSpecification.dynamicFilter(userSpecificationDto.toUserSpecification()))
-                .stream()
-                .map(UserEntity::toUserDto)
-                .toList();
+        if (userSpecificationDto.limit() != null && userSpecificationDto.limit() <= 0) {
+            throw new IllegalArgumentException("Limit must be positive.");
+        }
+        var limit = userSpecificationDto.limit() == null
+                ? pageDefaultSize
+                : Math.min(userSpecificationDto.limit(), pageMaxSize);
+
+        var userSpecification = userSpecificationDto.toUserSpecification();
+        // Reads one extra user to find out whether a next page exists
+        var users = userRepository.fetch(userFilterSpecification.dynamicFilter(userSpecification), limit + 1);
+
+        String nextCursor = null;
+        if (users.size() > limit) {
+            users = users.subList(0, limit);
+            var last = users.get(limit - 1);
+            var sort = userSpecification.sort();
+            nextCursor = new UserCursor(
+                    sort, userSpecification.descending(), sortValue(last, sort), last.id()).encode();
+        }
+
+        Long total = null;
+        if (Boolean.TRUE.equals(userSpecificationDto.withTotal())) {
+            total = userRepository.countMatching(userFilterSpecification.dynamicFilter(userSpecification.withoutCursor()));
+        }
+
+        return new PageDto<>(users, nextCursor, total);
     }
 
     /**
-     * Retrieves the currently logged-in user based on the authentication token.
+     * Returns the value of the sort field of a user as stored in a cursor.
      *
-     * @param token authentication token
-     * @return the DTO of the logged-in user
-     * @throws EntityNotFoundException if user is not found
+     * @param userDto the user
+     * @param sort    the name of the sort field
+     * @return the value of the field as a string, or null if the user has no value
      */
-    public UserDto getActualLoginUser(String token) {
-        var userId = tokenService.id(token.replace("Bearer ", ""));
-        return getUserById(userId);
+    private static String sortValue(UserDto userDto, String sort) {
+        Object value = switch (sort) {
+            case "name" -> userDto.name();
+            case "surname" -> userDto.surname();
+            case "username" -> userDto.username();
+            case "email" -> userDto.email();
+            case "age" -> userDto.age();
+            case "holidaysHours" -> userDto.holidaysHours();
+            default -> userDto.id();
+        };
+        return value == null ? null : value.toString();
     }
 
     /**
-     * Retrieves the role of the currently logged-in user based on the authentication token.
+     * Retrieves the currently logged-in user.
      *
-     * @param token authentication token
-     * @return the role of the logged-in user
+     * @param userId ID of the authenticated user
+     * @return the DTO of the logged-in user
      * @throws EntityNotFoundException if user is not found
      */
-    public Role getActualLoginRole(String token) {
-
-        var userId = tokenService.id(token.replace("Bearer ", ""));
-
-        return userRepository
-                .findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("User not found"))
-                .getRole();
+    public UserDto getActualLoginUser(Long userId) {
+        return getUserById(userId);
     }
 
     /**
@@ -348,14 +383,12 @@ public class UserServiceImpl implements UserService {
      * Deletes the currently authenticated user.
      * Admin users cannot be deleted.
      *
-     * @param token authentication token of the user to delete
+     * @param userId ID of the authenticated user to delete
      * @return the ID of the deleted user
      * @throws ValidationException if user is admin
      * @throws EntityNotFoundException if user is not found
      */
-    public Long deleteUser(String token) {
-        var userId = tokenService.id(token.replace("Bearer ", ""));
-
+    public Long deleteUser(Long userId) {
         var userFromDb = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
 
@@ -363,22 +396,23 @@ public class UserServiceImpl implements UserService {
             throw new ValidationException("Admin user cannot be deleted");
         }
 
-        return userRepository.save(userFromDb.withDelete()).getId();
+        userRepository.markDeleted(userId);
+        eventPublisher.publishEvent(new UserChangedDto(userFromDb.getUsername()));
+
+        return userId;
     }
 
     /**
      * Deletes a user by ID if the logged-in user is an admin.
      *
      * @param userId the ID of the user to delete
-     * @param token authentication token of the logged-in user
+     * @param loginUserId ID of the authenticated user
      * @return the ID of the deleted user
      * @throws EntityNotFoundException if logged-in user or user to delete is not found,
      * or if logged-in user is not admin
      */
-    public Long deleteUser(Long userId, String token) {
-        var userIdLogin = tokenService.id(token.replace("Bearer ", ""));
-
-        var userFromDbLogin = userRepository.findById(userIdLogin)
+    public Long deleteUser(Long userId, Long loginUserId) {
+        var userFromDbLogin = userRepository.findById(loginUserId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
 
 
@@ -387,7 +421,10 @@ public class UserServiceImpl implements UserService {
                     .findById(userId)
                     .orElseThrow(() -> new EntityNotFoundException("User not found"));
 
-            return userRepository.save(userToDelete.withDelete()).getId();
+            userRepository.markDeleted(userId);
+            eventPublisher.publishEvent(new UserChangedDto(userToDelete.getUsername()));
+
+            return userId;
         }
 
         throw new EntityNotFoundException("User not found");
@@ -0,0 +1,191 @@
+package com.app.service.impl;
+
+import com.app.controller.dto.user.WorkScheduleChangedDto;
+import com.app.controller.dto.user.WorkScheduleDto;
+import com.app.persistence.Repository.UserRepository;
+import com.app.persistence.Repository.WorkScheduleRepository;
+import com.app.service.WorkScheduleService;
+import com.app.service.calendar.CompiledWorkSchedule;
+import com.app.service.calendar.WeeklyHours;
+import com.app.service.calendar.WorkingCalendar;
+import com.app.validate.WorkScheduleDtoValidator;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service responsible for the work schedules of users.
+ * <p>
+ * The schedules of a user are compiled into a {@link CompiledWorkSchedule} once and cached, so charging a holiday
+ * does not read the schedules again. Users without a schedule are charged by the default weekly hours of the
+ * {@link WorkingCalendar}. The cached schedule of a user is dropped after a schedule change is committed.
+ * </p>
+ * <p>
+ * A charge that compiled the schedules before a change committed must not cache its stale result after the
+ * change has evicted it. Every eviction therefore advances a generation, and a compiled schedule is cached only
+ * if no eviction happened while it was compiled.
+ * </p>
+ * <p>
+ * Evictions are local to this node. On other nodes a changed schedule is compiled again at the latest when the
+ * cached one expires, so the time-to-live bounds how long a holiday can still be charged by an old schedule
+ * there. The cache holds at most a configured number of users; while it is full of live entries, the schedules
+ * of further users are compiled on every charge.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class WorkScheduleServiceImpl implements WorkScheduleService {
+
+    private final UserRepository userRepository;
+    private final WorkScheduleRepository workScheduleRepository;
+    private final WorkingCalendar workingCalendar;
+    private final WorkScheduleDtoValidator workScheduleDtoValidator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Compiled schedules by user ID.
+     */
+    private final Map<Long, CachedSchedule> schedules = new ConcurrentHashMap<>();
+
+    /**
+     * Advanced by every eviction.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${work-schedules.cache.max-size}")
+    private int maxSize;
+
+    @Value("${work-schedules.cache.ttl-ms}")
+    private long timeToLiveMs;
+
+    /**
+     * Compiled schedule of a user together with the moment it stops being valid.
+     *
+     * @param schedule  the compiled schedule; empty for users charged by the default weekly hours
+     * @param expiresAt the expiration time in epoch milliseconds
+     */
+    private record CachedSchedule(Optional<CompiledWorkSchedule> schedule, long expiresAt) {
+    }
+
+    /**
+     * Sets the weekly working hours of a user from the given date on.
+     *
+     * @param workScheduleDto DTO containing the user, the effective date and the hours per day of the week
+     * @return The ID of the saved schedule
+     * @throws com.app.exception.ValidationException if validation fails
+     * @throws EntityNotFoundException               if the user is not found
+     */
+    @Override
+    public Long setSchedule(WorkScheduleDto workScheduleDto) {
+        workScheduleDtoValidator.validate(workScheduleDto);
+
+        var userEntity = userRepository
+                .findById(workScheduleDto.userId())
+                .orElseThrow(() -> new EntityNotFoundException("User not found."));
+
+        var schedule = workScheduleRepository
+                .findByUserEntityIdAndEffectiveFrom(userEntity.getId(), workScheduleDto.effectiveFrom())
+                .map(existing -> existing.withHours(workScheduleDto.hoursPerDayOfWeek()))
+                .orElseGet(() -> workScheduleDto.toEntity(userEntity));
+
+        var scheduleId = workScheduleRepository.save(schedule).getId();
+        eventPublisher.publishEvent(new WorkScheduleChangedDto(userEntity.getId()));
+
+        return scheduleId;
+    }
+
+    /**
+     * Calculates the number of holiday hours a user is charged between two timestamps.
+     *
+     * @param userId    ID of the user
+     * @param startTime Start date and time of the holiday
+     * @param endTime   End date and time of the holiday
+     * @return Number of holiday hours according to the user's work schedule
+     * @throws IllegalArgumentException if holiday hours per day exceed the working day
+     */
+    @Override
+    public long hoursBetween(Long userId, LocalDateTime startTime, LocalDateTime endTime) {
+        return workingCalendar.hoursBetween(startTime, endTime, schedule(userId).orElse(null));
+    }
+
+    /**
+     * Drops the compiled schedule of a user after the schedule change has been committed.
+     *
+     * @param workScheduleChangedDto the event containing the ID of the user
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void evict(WorkScheduleChangedDto workScheduleChangedDto) {
+        generation.incrementAndGet();
+        schedules.remove(workScheduleChangedDto.userId());
+    }
+
+    /**
+     * Returns the compiled schedule of a user, from the cache if it is loaded and has not expired.
+     * <p>
+     * An eviction racing with the put either is seen by the check after the put, which then withdraws the
+     * entry, or removes the entry itself.
+     * </p>
+     *
+     * @param userId ID of the user
+     * @return the compiled schedule, or empty if the user has no schedule
+     */
+    private Optional<CompiledWorkSchedule> schedule(Long userId) {
+        var now = System.currentTimeMillis();
+        var cached = schedules.get(userId);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.schedule();
+        }
+
+        var seen = generation.get();
+        var compiled = new CachedSchedule(compile(userId), now + timeToLiveMs);
+        if (seen == generation.get()) {
+            if (schedules.size() >= maxSize) {
+                schedules.values().removeIf(entry -> entry.expiresAt() <= now);
+            }
+            if (schedules.size() < maxSize) {
+                schedules.put(userId, compiled);
+                if (seen != generation.get()) {
+                    schedules.remove(userId, compiled);
+                }
+            }
+        }
+        return compiled.schedule();
+    }
+
+    /**
+     * Compiles all schedules of a user. Days before the first schedule use the default weekly hours.
+     *
+     * @param userId ID of the user
+     * @return the compiled schedule, or empty if the user has no schedule
+     */
+    private Optional<CompiledWorkSchedule> compile(Long userId) {
+        var entities = workScheduleRepository.findAllByUserEntityIdOrderByEffectiveFromAsc(userId);
+        if (entities.isEmpty()) {
+            return Optional.empty();
+        }
+
+        var starts = new ArrayList<LocalDate>();
+        var weeks = new ArrayList<WeeklyHours>();
+        starts.add(LocalDate.MIN);
+        weeks.add(workingCalendar.defaultWeeklyHours());
+        for (var entity : entities) {
+            starts.add(entity.getEffectiveFrom());
+            weeks.add(new WeeklyHours(entity.hoursPerDayOfWeek()));
+        }
+        return Optional.of(new CompiledWorkSchedule(starts, weeks));
+    }
+}
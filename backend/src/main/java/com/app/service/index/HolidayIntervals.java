@@ -0,0 +1,73 @@
+package com.app.service.index;
+
+import com.app.controller.dto.holiday.HolidayIntervalDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable set of the holiday ranges of one user, sorted by their start.
+ * <p>
+ * Next to the sorted ranges a running maximum of their ends is kept, so a closed range {@code [start, end]}
+ * overlaps an existing one exactly when the largest end among the ranges starting no later than {@code end}
+ * is not before {@code start}. An overlap check is therefore one binary search and one array read.
+ * </p>
+ */
+public final class HolidayIntervals {
+
+    private final List<HolidayIntervalDto> intervals;
+    private final LocalDateTime[] maxEndUpTo;
+
+    /**
+     * Constructs new {@link HolidayIntervals} from the given ranges.
+     *
+     * @param intervals the holiday ranges
+     */
+    public HolidayIntervals(Collection<HolidayIntervalDto> intervals) {
+        this.intervals = intervals.stream()
+                .sorted(Comparator.comparing(HolidayIntervalDto::startDate).thenComparing(HolidayIntervalDto::id))
+                .toList();
+
+        this.maxEndUpTo = new LocalDateTime[this.intervals.size()];
+        for (int i = 0; i < maxEndUpTo.length; i++) {
+            var end = this.intervals.get(i).endDate();
+            maxEndUpTo[i] = i == 0 || end.isAfter(maxEndUpTo[i - 1]) ? end : maxEndUpTo[i - 1];
+        }
+    }
+
+    /**
+     * Checks whether the closed range {@code [start, end]} overlaps any range of the set.
+     *
+     * @param start the start of the range
+     * @param end   the end of the range
+     * @return {@code true} if the range overlaps an existing one
+     */
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        var last = lastStartingAtOrBefore(end);
+        return last >= 0 && !maxEndUpTo[last].isBefore(start);
+    }
+
+    /**
+     * Finds the index of the last range whose start is not after the given time.
+     *
+     * @param time the time to search for
+     * @return the index of the range, or {@code -1} if every range starts after the time
+     */
+    private int lastStartingAtOrBefore(LocalDateTime time) {
+        int low = 0;
+        int high = intervals.size() - 1;
+        int found = -1;
+        while (low <= high) {
+            var mid = (low + high) >>> 1;
+            if (intervals.get(mid).startDate().isAfter(time)) {
+                high = mid - 1;
+            } else {
+                found = mid;
+                low = mid + 1;
+            }
+        }
+        return found;
+    }
+}
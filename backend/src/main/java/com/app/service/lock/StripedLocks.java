@@ -0,0 +1,85 @@
+package com.app.service.lock;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of {@link ReentrantLock}s shared by any number of keys.
+ * <p>
+ * Each key is mapped to one of the stripes by its hash, so the memory used does not grow with the number of
+ * keys and no lock ever has to be removed. Different keys may share a stripe and then wait for each other,
+ * which only costs throughput, never correctness.
+ * </p>
+ * <p>
+ * Because keys share stripes, a caller holding several keys at once must lock their stripes, not the keys, in
+ * one global order; {@link #locksFor(Collection)} returns them in stripe index order for that purpose.
+ * </p>
+ */
+public class StripedLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    /**
+     * Constructs new {@link StripedLocks}.
+     *
+     * @param stripes the minimum number of stripes; rounded up to a power of two
+     * @throws IllegalArgumentException if the number of stripes is not positive
+     */
+    public StripedLocks(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Number of stripes must be positive.");
+        }
+        var size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the lock guarding the given key.
+     *
+     * @param key the key to lock
+     * @return the lock of the key's stripe
+     */
+    public ReentrantLock lockFor(Object key) {
+        return stripes[indexFor(key)];
+    }
+
+    /**
+     * Returns the distinct locks guarding the given keys, ordered by stripe index.
+     * Locking them in this order never deadlocks with another caller doing the same.
+     *
+     * @param keys the keys to lock
+     * @return the locks of the keys' stripes, each once
+     */
+    public List<ReentrantLock> locksFor(Collection<?> keys) {
+        var indexes = new TreeSet<Integer>();
+        keys.forEach(key -> indexes.add(indexFor(key)));
+        return indexes.stream().map(index -> stripes[index]).toList();
+    }
+
+    /**
+     * Returns the number of stripes.
+     *
+     * @return the number of stripes
+     */
+    public int size() {
+        return stripes.length;
+    }
+
+    /**
+     * Returns the index of the stripe guarding the given key.
+     *
+     * @param key the key
+     * @return the stripe index
+     */
+    private int indexFor(Object key) {
+        var hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,153 @@
+package com.app.service.lock;
+
+import com.app.persistence.Repository.UserRepository;
+import com.app.persistence.entity.UserEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes the balance-changing operations of a single user.
+ * <p>
+ * A user is locked in two steps: first a striped in-JVM lock keyed by the user ID, so concurrent requests on
+ * one node queue up without holding a database connection lock, then a {@code SELECT ... FOR UPDATE} on the
+ * user row, so requests on different nodes are serialized as well. Both locks are held until the surrounding
+ * transaction completes; the in-JVM lock is released after every other completion callback, so the next
+ * request of the user already sees the effects of the previous one.
+ * </p>
+ * <p>
+ * Several users are locked together by taking the in-JVM stripes of all of them in stripe index order and only
+ * then the user rows in ascending ID order. Users with different IDs may share a stripe, so ordering by user ID
+ * alone would let two batches take the same two stripes in opposite order and time out waiting for each other.
+ * </p>
+ * <p>
+ * The time spent waiting for each lock is published under {@code holidays.lock.wait}, tagged by scope.
+ * </p>
+ */
+@Component
+public class UserLock {
+
+    private final UserRepository userRepository;
+    private final StripedLocks locks;
+    private final long timeoutMillis;
+    private final Timer jvmWait;
+    private final Timer rowWait;
+
+    /**
+     * Constructs a new {@link UserLock} and registers its meters.
+     *
+     * @param userRepository the repository the user row is locked through
+     * @param meterRegistry  the registry the lock wait times are published to
+     * @param stripes        the number of in-JVM lock stripes
+     * @param timeoutMillis  the maximum time to wait for the in-JVM lock, in milliseconds
+     */
+    public UserLock(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${holidays.lock.stripes}") int stripes,
+            @Value("${holidays.lock.timeout-ms}") long timeoutMillis) {
+        this.userRepository = userRepository;
+        this.locks = new StripedLocks(stripes);
+        this.timeoutMillis = timeoutMillis;
+        this.jvmWait = Timer.builder("holidays.lock.wait").tag("scope", "jvm").register(meterRegistry);
+        this.rowWait = Timer.builder("holidays.lock.wait").tag("scope", "row").register(meterRegistry);
+    }
+
+    /**
+     * Locks the user until the current transaction completes and returns the user read under the lock.
+     *
+     * @param userId the ID of the user to lock
+     * @return the locked user
+     * @throws IllegalStateException      if no transaction is active
+     * @throws CannotAcquireLockException if the in-JVM lock is not acquired in time
+     * @throws EntityNotFoundException    if the user is not found
+     */
+    public UserEntity lock(Long userId) {
+        lockStripes(List.of(locks.lockFor(userId)));
+
+        return rowWait.record(() -> userRepository
+                .findByIdForUpdate(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found.")));
+    }
+
+    /**
+     * Locks several users until the current transaction completes and returns the users read under the lock.
+     * Users that do not exist are left out of the result.
+     *
+     * @param userIds the IDs of the users to lock
+     * @return the locked users by ID, in ascending ID order
+     * @throws IllegalStateException      if no transaction is active
+     * @throws CannotAcquireLockException if the in-JVM locks are not acquired in time
+     */
+    public SortedMap<Long, UserEntity> lockAll(Collection<Long> userIds) {
+        lockStripes(locks.locksFor(userIds));
+
+        var users = new TreeMap<Long, UserEntity>();
+        for (var userId : new TreeSet<>(userIds)) {
+            rowWait.record(() -> userRepository.findByIdForUpdate(userId))
+                    .ifPresent(user -> users.put(userId, user));
+        }
+        return users;
+    }
+
+    /**
+     * Acquires the given in-JVM locks in order and registers their release at the completion of the current
+     * transaction. If one of them is not acquired in time, the ones already acquired are released at once.
+     *
+     * @param stripes the locks to acquire, in stripe index order
+     * @throws IllegalStateException      if no transaction is active
+     * @throws CannotAcquireLockException if a lock is not acquired in time
+     */
+    private void lockStripes(List<ReentrantLock> stripes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("User can only be locked inside a transaction.");
+        }
+
+        var acquired = new ArrayList<ReentrantLock>(stripes.size());
+        var start = System.nanoTime();
+        try {
+            for (var lock : stripes) {
+                if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new CannotAcquireLockException("Timed out waiting for another request of the user.");
+                }
+                acquired.add(lock);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired.forEach(ReentrantLock::unlock);
+            throw new CannotAcquireLockException("Interrupted while waiting for another request of the user.", e);
+        } catch (CannotAcquireLockException e) {
+            acquired.forEach(ReentrantLock::unlock);
+            throw e;
+        } finally {
+            jvmWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.LOWEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                acquired.forEach(ReentrantLock::unlock);
+            }
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package com.app.validate;
+
+import com.app.controller.dto.user.WorkScheduleDto;
+import com.app.exception.ValidationException;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.util.HashMap;
+import java.util.stream.Collectors;
+
+@Component
+public class WorkScheduleDtoValidator implements Validator<WorkScheduleDto> {
+
+    private static final int MAX_HOURS_PER_DAY = 24;
+
+    @Override
+    public void validate(WorkScheduleDto workScheduleDto) {
+        var errors = new HashMap<String, String>();
+        if (workScheduleDto == null) {
+            errors.put("general", "Fill out the form with the schedule data.");
+        } else {
+            if (workScheduleDto.userId() == null) {
+                errors.put("user", "User cannot be null.");
+            }
+
+            if (workScheduleDto.effectiveFrom() == null) {
+                errors.put("effective from", "Effective from date cannot be null.");
+            }
+
+            var hours = workScheduleDto.hoursPerDayOfWeek();
+            for (var dayOfWeek : DayOfWeek.values()) {
+                var dayHours = hours[dayOfWeek.ordinal()];
+                if (dayHours < 0 || dayHours > MAX_HOURS_PER_DAY) {
+                    errors.put(dayOfWeek.name(), "%s hours must be between 0 and %d."
+                            .formatted(dayOfWeek.name().charAt(0) + dayOfWeek.name().substring(1).toLowerCase(),
+                                    MAX_HOURS_PER_DAY));
+                }
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            throw new ValidationException(errors
+                    .values()
+                    .stream()
+                    .collect(Collectors.joining("\n")));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+-- Baseline schema of the entities, matching the mapping Hibernate validates on start-up.
+-- Identifiers come from the pooled table generators (*_seq), which allocate 50 IDs per round trip.
+
+create table users (
+    id             bigint       not null,
+    name           varchar(255),
+    surname        varchar(255),
+    username       varchar(255),
+    password       varchar(255),
+    email          varchar(255),
+    age            integer      not null,
+    role           enum ('ROLE_ADMIN','ROLE_WORKER'),
+    holidays_hours bigint       not null,
+    enable         bit          not null,
+    token_version  bigint       not null,
+    primary key (id)
+) engine = InnoDB;
+
+create table users_seq (
+    next_val bigint
+) engine = InnoDB;
+
+insert into users_seq values (1);
+
+create table holidays (
+    id         bigint not null,
+    user_id    bigint,
+    start_date datetime(6),
+    end_date   datetime(6),
+    status     enum ('ACCEPTED','PROCESSING','REJECTED'),
+    hours      bigint,
+    primary key (id),
+    constraint fk_holidays_user foreign key (user_id) references users (id)
+) engine = InnoDB;
+
+create table holidays_seq (
+    next_val bigint
+) engine = InnoDB;
+
+insert into holidays_seq values (1);
+
+create table verification_token (
+    id         bigint not null,
+    token      varchar(255),
+    time_stamp bigint,
+    user_id    bigint,
+    primary key (id),
+    constraint ux_verification_token_user unique (user_id),
+    constraint fk_verification_token_user foreign key (user_id) references users (id)
+) engine = InnoDB;
+
+create table verification_token_seq (
+    next_val bigint
+) engine = InnoDB;
+
+insert into verification_token_seq values (1);
+
+create table work_schedules (
+    id              bigint  not null,
+    user_id         bigint,
+    effective_from  date,
+    monday_hours    integer not null,
+    tuesday_hours   integer not null,
+    wednesday_hours integer not null,
+    thursday_hours  integer not null,
+    friday_hours    integer not null,
+    saturday_hours  integer not null,
+    sunday_hours    integer not null,
+    primary key (id),
+    constraint ux_work_schedules_user_effective_from unique (user_id, effective_from),
+    constraint fk_work_schedules_user foreign key (user_id) references users (id)
+) engine = InnoDB;
+
+create table work_schedules_seq (
+    next_val bigint
+) engine = InnoDB;
+
+insert into work_schedules_seq values (1);
+
+create table refresh_tokens (
+    id          bigint       not null,
+    jti         varchar(255) not null,
+    family_id   varchar(255) not null,
+    user_id     bigint,
+    expires_at  bigint,
+    consumed_at bigint,
+    revoked     bit          not null,
+    primary key (id),
+    constraint ux_refresh_tokens_jti unique (jti)
+) engine = InnoDB;
+
+create table refresh_tokens_seq (
+    next_val bigint
+) engine = InnoDB;
+
+insert into refresh_tokens_seq values (1);
+
+create table revoked_tokens (
+    id         bigint       not null,
+    jti        varchar(255) not null,
+    expires_at bigint,
+    primary key (id),
+    constraint ux_revoked_tokens_jti unique (jti)
+) engine = InnoDB;
+
+create table revoked_tokens_seq (
+    next_val bigint
+) engine = InnoDB;
+
+insert into revoked_tokens_seq values (1);
+
+create table holiday_balance_ledger (
+    id         bigint      not null,
+    user_id    bigint      not null,
+    delta      bigint      not null,
+    reason     enum ('ADJUSTMENT','HOLIDAY_REFUNDED','HOLIDAY_TAKEN','OPENING') not null,
+    holiday_id bigint,
+    created_at datetime(6) not null,
+    primary key (id),
+    index ix_holiday_balance_ledger_user_created_at (user_id, created_at)
+) engine = InnoDB;
+
+create table holiday_balance_ledger_seq (
+    next_val bigint
+) engine = InnoDB;
+
+insert into holiday_balance_ledger_seq values (1);
+
+create table holiday_balance_snapshots (
+    id       bigint      not null,
+    user_id  bigint      not null,
+    balance  bigint      not null,
+    taken_at datetime(6) not null,
+    primary key (id),
+    constraint ux_holiday_balance_snapshots_user_taken_at unique (user_id, taken_at)
+) engine = InnoDB;
+
+create table holiday_balance_snapshots_seq (
+    next_val bigint
+) engine = InnoDB;
+
+insert into holiday_balance_snapshots_seq values (1);
@@ -0,0 +1,20 @@
+-- Indexes of the lookup and listing paths.
+
+-- Login, registration and the user filters look users up by username and email.
+create unique index ux_users_username on users (username);
+create index ix_users_email on users (email);
+
+-- Account activation looks the token up by its value.
+create index ix_verification_token_token on verification_token (token);
+
+-- The overlap check of a new holiday reads the user's non-rejected holidays by their dates.
+create index ix_holidays_user_status_dates on holidays (user_id, status, start_date, end_date);
+
+-- Holiday pages are ordered by (start_date, id) and continue from the last key of the previous page.
+create index ix_holidays_start_date_id on holidays (start_date, id);
+
+-- A user cannot hold two non-rejected holidays with the same dates; rejected requests do not block
+-- booking the dates again, and different users may book the same dates. Rejected rows get their own ID
+-- as the last key part, so they never collide.
+create unique index ux_holidays_user_dates
+    on holidays (user_id, start_date, end_date, (if(status = 'REJECTED', id, 0)));
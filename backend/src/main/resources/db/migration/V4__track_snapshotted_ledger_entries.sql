@@ -0,0 +1,12 @@
+-- Ledger entries remember the snapshot that includes them, so an entry whose transaction commits after a
+-- snapshot of its time was taken is included in the next snapshot instead of being skipped.
+alter table holiday_balance_ledger add column snapshot_at datetime(6);
+
+-- Existing entries are included in the first snapshot of their user taken after them.
+update holiday_balance_ledger l
+set l.snapshot_at = (select min(s.taken_at)
+                     from holiday_balance_snapshots s
+                     where s.user_id = l.user_id and s.taken_at > l.created_at);
+
+-- Snapshot runs read the entries no snapshot includes yet.
+create index ix_holiday_balance_ledger_snapshot_at_created_at on holiday_balance_ledger (snapshot_at, created_at);
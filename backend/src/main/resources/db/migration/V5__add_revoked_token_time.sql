@@ -0,0 +1,5 @@
+-- Revoked tokens remember when they were revoked, so nodes refresh their revocation set with the rows
+-- revoked since their previous refresh instead of reading the whole table.
+alter table revoked_tokens add column revoked_at bigint not null default 0;
+
+create index ix_revoked_tokens_revoked_at on revoked_tokens (revoked_at);
@@ -0,0 +1,2 @@
+-- A detected reuse revokes the family of the token while the refresh request waits.
+create index ix_refresh_tokens_family_id on refresh_tokens (family_id);
@@ -0,0 +1,99 @@
+package com.app.persistence.specification.impl;
+
+import com.app.persistence.specification.model.UserCursor;
+import com.app.persistence.specification.model.UserSpecification;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserFilterSpecificationImplTest {
+
+    private final UserFilterSpecificationImpl filterSpecification = new UserFilterSpecificationImpl();
+
+    @Test
+    void reusesTheQueryOfTheSameShape() {
+        var first = filterSpecification.dynamicFilter(specification("Anna", 20, "age", null));
+        var second = filterSpecification.dynamicFilter(specification("Jan", 40, "age", null));
+        var other = filterSpecification.dynamicFilter(specification(null, 40, "age", null));
+
+        assertSame(first.jpql(), second.jpql());
+        assertSame(first.countJpql(), second.countJpql());
+        assertNotSame(first.jpql(), other.jpql());
+        assertEquals(Map.of("name", "Jan", "minAge", 40), second.parameters());
+    }
+
+    @Test
+    void bindsTheCursorValueWithTheTypeOfTheSortField() {
+        var query = filterSpecification.dynamicFilter(
+                specification(null, null, "age", new UserCursor("age", false, "30", 7L)));
+
+        assertEquals(Map.of("afterValue", 30, "afterId", 7L), query.parameters());
+        assertTrue(query.jpql().endsWith(" order by u.age asc, u.id asc"));
+    }
+
+    @Test
+    void continuesADescendingSortBelowTheCursor() {
+        var query = filterSpecification.dynamicFilter(
+                descending("holidaysHours", new UserCursor("holidaysHours", true, "40", 7L)));
+
+        assertEquals(Map.of("afterValue", 40L, "afterId", 7L), query.parameters());
+        assertTrue(query.jpql().contains(
+                "(u.holidaysHours < :afterValue or (u.holidaysHours = :afterValue and u.id < :afterId))"));
+        assertTrue(query.jpql().endsWith(" order by u.holidaysHours desc, u.id desc"));
+    }
+
+    @Test
+    void ordersUsersWithoutAValueFirstAndKeepsThemInTheKeyset() {
+        var ascending = filterSpecification.dynamicFilter(
+                specification(null, null, "name", new UserCursor("name", false, "Anna", 7L)));
+        var afterMissing = filterSpecification.dynamicFilter(
+                specification(null, null, "name", new UserCursor("name", false, null, 7L)));
+        var descending = filterSpecification.dynamicFilter(
+                descending("name", new UserCursor("name", true, "Anna", 7L)));
+        var descendingAfterMissing = filterSpecification.dynamicFilter(
+                descending("name", new UserCursor("name", true, null, 7L)));
+
+        assertTrue(ascending.jpql().endsWith(" order by u.name asc nulls first, u.id asc"));
+        assertTrue(descending.jpql().endsWith(" order by u.name desc nulls last, u.id desc"));
+        assertTrue(afterMissing.jpql().contains("(u.name is not null or (u.name is null and u.id > :afterId))"));
+        assertEquals(Map.of("afterId", 7L), afterMissing.parameters());
+        assertTrue(descending.jpql().contains(" or u.name is null)"));
+        assertTrue(descendingAfterMissing.jpql().contains("(u.name is null and u.id < :afterId)"));
+    }
+
+    @Test
+    void rejectsUnknownSortsAndForeignCursors() {
+        assertThrows(IllegalArgumentException.class,
+                () -> filterSpecification.dynamicFilter(specification(null, null, "password", null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> filterSpecification.dynamicFilter(
+                        specification(null, null, "age", new UserCursor("name", false, "Anna", 7L))));
+        assertThrows(IllegalArgumentException.class,
+                () -> filterSpecification.dynamicFilter(
+                        specification(null, null, "name", new UserCursor("name", true, "Anna", 7L))));
+    }
+
+    @Test
+    void rejectsCursorValuesThatDoNotMatchTheSortField() {
+        for (var value : new String[]{"thirty", null}) {
+            var exception = assertThrows(IllegalArgumentException.class,
+                    () -> filterSpecification.dynamicFilter(
+                            specification(null, null, "age", new UserCursor("age", false, value, 7L))));
+            assertEquals("Invalid cursor.", exception.getMessage());
+        }
+    }
+
+    private static UserSpecification specification(String name, Integer minAge, String sort, UserCursor after) {
+        return new UserSpecification(name, null, null, null, minAge, null, null, null, sort, false, after);
+    }
+
+    private static UserSpecification descending(String sort, UserCursor after) {
+        return new UserSpecification(null, null, null, null, null, null, null, null, sort, true, after);
+    }
+}
@@ -0,0 +1,40 @@
+package com.app.persistence.specification.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HolidayCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        var cursor = new HolidayCursor(LocalDateTime.of(2030, 2, 3, 8, 30, 15, 120_000_000), 42L);
+
+        assertEquals(cursor, HolidayCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void readsNoCursorAsTheFirstPage() {
+        assertNull(HolidayCursor.decode(null));
+        assertNull(HolidayCursor.decode(" "));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        for (var cursor : new String[]{"not base64!", encode("2030-02-03T08:00"), encode("2030-02-03T08:00|x"),
+                encode("yesterday|7"), encode("|7")}) {
+            var exception = assertThrows(IllegalArgumentException.class, () -> HolidayCursor.decode(cursor), cursor);
+            assertEquals("Invalid cursor.", exception.getMessage());
+        }
+    }
+
+    private static String encode(String plain) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+}
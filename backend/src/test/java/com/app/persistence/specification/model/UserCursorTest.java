@@ -0,0 +1,52 @@
+package com.app.persistence.specification.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UserCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        for (var cursor : new UserCursor[]{
+                new UserCursor("name", false, "Anna", 7L),
+                new UserCursor("email", true, "a|b@example.com", 8L),
+                new UserCursor("surname", false, "", 9L),
+                new UserCursor("surname", true, null, 10L),
+                new UserCursor("id", false, "11", 11L)}) {
+            assertEquals(cursor, UserCursor.decode(cursor.encode()));
+        }
+    }
+
+    @Test
+    void keepsAMissingValueApartFromTheTextNull() {
+        var missing = new UserCursor("name", false, null, 7L).encode();
+        var text = new UserCursor("name", false, "null", 7L).encode();
+
+        assertNull(UserCursor.decode(missing).value());
+        assertEquals("null", UserCursor.decode(text).value());
+    }
+
+    @Test
+    void readsNoCursorAsTheFirstPage() {
+        assertNull(UserCursor.decode(null));
+        assertNull(UserCursor.decode(""));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        for (var cursor : new String[]{"not base64!", encode("name"), encode("name|A"), encode("name|A|x|Anna")}) {
+            var exception = assertThrows(IllegalArgumentException.class, () -> UserCursor.decode(cursor), cursor);
+            assertEquals("Invalid cursor.", exception.getMessage());
+        }
+    }
+
+    private static String encode(String plain) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+}
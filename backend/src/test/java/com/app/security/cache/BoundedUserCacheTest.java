@@ -0,0 +1,40 @@
+package com.app.security.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BoundedUserCacheTest {
+
+    private final BoundedUserCache cache = new BoundedUserCache(new SimpleMeterRegistry(), 100, 60_000);
+
+    @Test
+    void cachesUsersLoadedAfterALookup() {
+        assertNull(cache.getUserFromCache("user"));
+        cache.putUserInCache(user("old"));
+
+        assertNotNull(cache.getUserFromCache("user"));
+        assertEquals("old", cache.getUserFromCache("user").getPassword());
+    }
+
+    @Test
+    void dropsUsersLoadedBeforeAnEviction() {
+        assertNull(cache.getUserFromCache("user"));
+        // The password change commits and evicts while the login is still loading the old details
+        cache.removeUserFromCache("user");
+        cache.putUserInCache(user("old"));
+
+        assertNull(cache.getUserFromCache("user"));
+        cache.putUserInCache(user("new"));
+        assertEquals("new", cache.getUserFromCache("user").getPassword());
+    }
+
+    private static UserDetails user(String password) {
+        return User.withUsername("user").password(password).roles("WORKER").build();
+    }
+}
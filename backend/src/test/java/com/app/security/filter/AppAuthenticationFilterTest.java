@@ -0,0 +1,64 @@
+package com.app.security.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:holidays;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "tokens.keys.keystore-path=${java.io.tmpdir}/holiday-manager-test/tokens.p12",
+        "tokens.keys.keystore-password=test",
+        "tokens.keys.generate-if-missing=true",
+        "login.throttle.address.burst=3",
+        "login.throttle.address.refill-period-ms=600000"
+})
+class AppAuthenticationFilterTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void throttlesClientsBehindATrustedProxyByTheirForwardedAddress() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertNotEquals(429, login("first-" + i, "203.0.113.7"));
+        }
+        assertEquals(429, login("first-3", "203.0.113.7"));
+
+        // Another client behind the same proxy still has its own attempts
+        assertNotEquals(429, login("second", "203.0.113.8"));
+    }
+
+    /**
+     * Attempts a login with wrong credentials through a proxy on the loopback address.
+     *
+     * @param username      the username of the attempt
+     * @param clientAddress the client address forwarded by the proxy
+     * @return the status of the response
+     */
+    private int login(String username, String clientAddress) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:%d/login".formatted(port)))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", clientAddress)
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"%s\",\"password\":\"wrong\"}".formatted(username)))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,103 @@
+package com.app.security.keys;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenKeyRingTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void nodesSharingTheKeystoreAcceptEachOthersTokens() {
+        var keystore = directory.resolve("tokens.p12");
+        var first = new TokenKeyRing(keystore, "secret", 0, 0, 0, true);
+        var second = new TokenKeyRing(keystore, "secret", 0, 0, 0, false);
+
+        var signingKey = first.signingKey();
+        var token = Jwts.builder()
+                .header().keyId(signingKey.kid()).and()
+                .subject("1")
+                .signWith(signingKey.key())
+                .compact();
+
+        assertTrue(Files.exists(keystore));
+        assertEquals("1", Jwts.parser().keyLocator(second).build().parseSignedClaims(token).getPayload().getSubject());
+    }
+
+    @Test
+    void rejectsTokensSignedWithUnknownKey() {
+        var keyRing = new TokenKeyRing(directory.resolve("tokens.p12"), "secret", 0, 0, 0, true);
+        var token = Jwts.builder()
+                .header().keyId("unknown").and()
+                .subject("1")
+                .signWith(Jwts.SIG.HS512.key().build())
+                .compact();
+
+        assertThrows(UnsupportedJwtException.class,
+                () -> Jwts.parser().keyLocator(keyRing).build().parseSignedClaims(token));
+    }
+
+    @Test
+    void keepsVerifyingWithThePreviousKeyAfterRotation() throws InterruptedException {
+        var keystore = directory.resolve("tokens.p12");
+        var keyRing = new TokenKeyRing(keystore, "secret", 0, 1, 60_000, true);
+        var previous = keyRing.signingKey();
+        var token = Jwts.builder()
+                .header().keyId(previous.kid()).and()
+                .subject("1")
+                .signWith(previous.key())
+                .compact();
+
+        Thread.sleep(20);
+        keyRing.refresh();
+
+        assertTrue(!keyRing.signingKey().kid().equals(previous.kid()));
+        assertEquals("1", Jwts.parser().keyLocator(keyRing).build().parseSignedClaims(token).getPayload().getSubject());
+    }
+
+    @Test
+    void retiresGeneratedKeysOnceTheRetirementDelayHasPassed() throws InterruptedException {
+        var keystore = directory.resolve("tokens.p12");
+        var keyRing = new TokenKeyRing(keystore, "secret", 0, 1, 0, true);
+        var previous = keyRing.signingKey();
+
+        Thread.sleep(20);
+        keyRing.refresh();
+        Thread.sleep(20);
+
+        var reloaded = new TokenKeyRing(keystore, "secret", 0, 0, 0, false);
+        assertNull(reloaded.verificationKey(previous.kid()));
+        assertEquals(keyRing.signingKey().kid(), reloaded.signingKey().kid());
+    }
+
+    @Test
+    void nodesRotatingTheSameKeystoreKeepEachOthersKeys() throws InterruptedException {
+        var keystore = directory.resolve("tokens.p12");
+        var first = new TokenKeyRing(keystore, "secret", 0, 10, 60_000, true);
+        var second = new TokenKeyRing(keystore, "secret", 0, 10, 60_000, false);
+        var previous = first.signingKey();
+
+        Thread.sleep(20);
+        first.refresh();
+        var rotated = first.signingKey();
+        second.refresh();
+        Thread.sleep(20);
+        first.refresh();
+
+        assertTrue(!rotated.kid().equals(previous.kid()));
+        assertEquals(rotated.key(), second.verificationKey(rotated.kid()));
+        assertEquals(second.signingKey().key(), first.verificationKey(second.signingKey().kid()));
+        assertEquals(previous.key(), second.verificationKey(previous.kid()));
+    }
+}
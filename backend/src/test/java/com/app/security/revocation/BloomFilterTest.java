@@ -0,0 +1,42 @@
+package com.app.security.revocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void neverMissesAnAddedElement() {
+        var filter = new BloomFilter(10_000, 0.01);
+        var elements = IntStream.range(0, 10_000).mapToObj(i -> UUID.randomUUID().toString()).toList();
+
+        elements.forEach(filter::put);
+
+        assertTrue(elements.stream().allMatch(filter::mightContain));
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheConfiguredRate() {
+        var filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put(UUID.randomUUID().toString()));
+
+        var falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain(UUID.randomUUID().toString()))
+                .count();
+
+        // Twice the configured rate leaves room for the randomness of the sample
+        assertTrue(falsePositives < 2_000, falsePositives + " false positives");
+        assertTrue(filter.expectedFalsePositiveRate(10_000) < 0.02);
+    }
+
+    @Test
+    void rejectsInvalidSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1));
+    }
+}
@@ -0,0 +1,181 @@
+package com.app.security.service.impl;
+
+import com.app.persistence.Repository.RefreshTokenRepository;
+import com.app.security.dto.TokensDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:holidays;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "tokens.keys.keystore-path=${java.io.tmpdir}/holiday-manager-test/tokens.p12",
+        "tokens.keys.keystore-password=test",
+        "tokens.keys.generate-if-missing=true"
+})
+class RefreshTokenServiceImplTest {
+
+    private static final long GRACE_PERIOD_MS = 10_000;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Test
+    void replaysWithinTheGracePeriodReceiveTheSamePair() {
+        var node = node(GRACE_PERIOD_MS);
+        var jti = login(node);
+
+        var first = node.rotate(jti, issuer(node));
+        var replay = node.rotate(jti, issuer(node));
+
+        assertEquals(first, replay);
+        assertNotEquals(jti, first.refreshToken());
+    }
+
+    @Test
+    void replayingARotatedTokenAfterTheGracePeriodRevokesTheFamily() throws InterruptedException {
+        var node = node(0);
+        var jti = login(node);
+        var rotated = node.rotate(jti, issuer(node));
+        Thread.sleep(5);
+
+        var reuse = assertThrows(IllegalStateException.class, () -> node.rotate(jti, issuer(node)));
+        assertEquals("Refresh token has been revoked", reuse.getMessage());
+
+        // The token handed out by the legitimate rotation belongs to the revoked family as well
+        var successor = assertThrows(IllegalStateException.class,
+                () -> node.rotate(rotated.refreshToken(), issuer(node)));
+        assertEquals("Refresh token has been revoked", successor.getMessage());
+    }
+
+    @Test
+    void concurrentRefreshesOnOneNodeIssueOnePair() throws Exception {
+        var node = node(GRACE_PERIOD_MS);
+        var jti = login(node);
+        var issued = new AtomicInteger();
+
+        Callable<TokensDto> refresh = () -> node.rotate(jti, familyId -> {
+            issued.incrementAndGet();
+            return issuer(node).apply(familyId);
+        });
+        var pairs = rotateConcurrently(Collections.nCopies(8, refresh));
+
+        assertEquals(1, issued.get());
+        assertEquals(8, pairs.size());
+        assertTrue(pairs.stream().allMatch(pairs.getFirst()::equals));
+    }
+
+    @Test
+    void concurrentRefreshesOnTwoNodesLetExactlyOneRotate() throws Exception {
+        var first = node(GRACE_PERIOD_MS);
+        var second = node(GRACE_PERIOD_MS);
+        // Issued by one node and presented to the other right away
+        var jti = login(first);
+
+        var rejected = new AtomicInteger();
+        Function<RefreshTokenServiceImpl, Callable<TokensDto>> refresh = node -> () -> {
+            try {
+                return node.rotate(jti, issuer(node));
+            } catch (IllegalStateException e) {
+                assertEquals("Refresh token has already been used", e.getMessage());
+                rejected.incrementAndGet();
+                return null;
+            }
+        };
+        var pairs = rotateConcurrently(List.of(refresh.apply(first), refresh.apply(second)));
+
+        assertEquals(1, pairs.size());
+        assertEquals(1, rejected.get());
+        // A replay inside the grace period does not revoke the family
+        var next = first.rotate(pairs.getFirst().refreshToken(), issuer(first));
+        assertNotEquals(pairs.getFirst(), next);
+    }
+
+    /**
+     * Creates a node of the service sharing the database with every other node.
+     *
+     * @param gracePeriodMs the grace period of the node
+     * @return the node
+     */
+    private RefreshTokenServiceImpl node(long gracePeriodMs) {
+        var node = new RefreshTokenServiceImpl(refreshTokenRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(node, "gracePeriodMs", gracePeriodMs);
+        node.init();
+        return node;
+    }
+
+    /**
+     * Issues the first refresh token of a new family.
+     *
+     * @param node the node issuing the token
+     * @return the identifier of the token
+     */
+    private static String login(RefreshTokenServiceImpl node) {
+        return issuer(node).apply(UUID.randomUUID().toString()).refreshToken();
+    }
+
+    /**
+     * Returns an issuer registering a new refresh token, whose identifier is used as the refresh token itself.
+     *
+     * @param node the node registering the token
+     * @return the issuer
+     */
+    private static Function<String, TokensDto> issuer(RefreshTokenServiceImpl node) {
+        return familyId -> {
+            var jti = UUID.randomUUID().toString();
+            node.register(jti, familyId, 1L, System.currentTimeMillis() + 60_000);
+            return new TokensDto("access-" + jti, jti);
+        };
+    }
+
+    /**
+     * Runs the rotations on separate threads at once and collects the pairs they returned.
+     *
+     * @param rotations the rotations, returning {@code null} when rejected
+     * @return the returned pairs
+     */
+    private static List<TokensDto> rotateConcurrently(List<Callable<TokensDto>> rotations)
+            throws InterruptedException, ExecutionException {
+        var start = new CountDownLatch(1);
+        var pairs = new ArrayList<TokensDto>();
+        try (var executor = Executors.newFixedThreadPool(rotations.size())) {
+            var futures = rotations.stream()
+                    .map(rotation -> executor.submit(() -> {
+                        start.await();
+                        return rotation.call();
+                    }))
+                    .toList();
+            start.countDown();
+            for (var future : futures) {
+                var pair = future.get();
+                if (pair != null) {
+                    pairs.add(pair);
+                }
+            }
+        }
+        return pairs;
+    }
+}
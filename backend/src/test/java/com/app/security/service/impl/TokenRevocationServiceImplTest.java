@@ -0,0 +1,101 @@
+package com.app.security.service.impl;
+
+import com.app.persistence.Repository.RevokedTokenRepository;
+import com.app.persistence.entity.RevokedTokenEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationServiceImplTest {
+
+    private static final long OVERLAP_MS = 60_000;
+
+    private final RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+    private final TokenRevocationServiceImpl service =
+            new TokenRevocationServiceImpl(revokedTokenRepository, new SimpleMeterRegistry());
+
+    TokenRevocationServiceImplTest() {
+        ReflectionTestUtils.setField(service, "expectedEntries", 1_000L);
+        ReflectionTestUtils.setField(service, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(service, "refreshOverlapMs", OVERLAP_MS);
+        service.init();
+    }
+
+    @Test
+    void reportsRevokedTokensOnce() {
+        service.revoke("revoked", future());
+        service.revoke("revoked", future());
+
+        assertTrue(service.isRevoked("revoked"));
+        assertFalse(service.isRevoked("other"));
+        verify(revokedTokenRepository, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    void treatsATokenRevokedConcurrentlyElsewhereAsRevoked() {
+        when(revokedTokenRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry for key 'ux_revoked_tokens_jti'"));
+
+        service.revoke("revoked", future());
+
+        assertTrue(service.isRevoked("revoked"));
+    }
+
+    @Test
+    void refreshesOnlyTheTokensRevokedSinceThePreviousRefresh() {
+        var started = System.currentTimeMillis();
+        when(revokedTokenRepository.findAllByRevokedAtGreaterThanEqualAndExpiresAtGreaterThan(anyLong(), any()))
+                .thenReturn(List.of(token("remote")));
+
+        service.refresh();
+        assertTrue(service.isRevoked("remote"));
+
+        var refreshed = System.currentTimeMillis();
+        service.refresh();
+
+        var since = ArgumentCaptor.forClass(Long.class);
+        verify(revokedTokenRepository, times(2))
+                .findAllByRevokedAtGreaterThanEqualAndExpiresAtGreaterThan(since.capture(), any());
+        // The first refresh continues from the initial load, the second from the first refresh
+        assertTrue(since.getAllValues().get(0) <= started - OVERLAP_MS);
+        assertTrue(since.getAllValues().get(1) >= started - OVERLAP_MS);
+        assertTrue(since.getAllValues().get(1) <= refreshed - OVERLAP_MS);
+    }
+
+    @Test
+    void forgetsExpiredTokens() {
+        service.revoke("expired", System.currentTimeMillis() - 1);
+        service.revoke("live", future());
+
+        service.purgeExpired();
+
+        assertFalse(service.isRevoked("expired"));
+        assertTrue(service.isRevoked("live"));
+        verify(revokedTokenRepository).deleteExpired(anyLong());
+    }
+
+    private static long future() {
+        return System.currentTimeMillis() + 60_000;
+    }
+
+    private static RevokedTokenEntity token(String jti) {
+        return RevokedTokenEntity.builder()
+                .jti(jti)
+                .expiresAt(future())
+                .revokedAt(System.currentTimeMillis())
+                .build();
+    }
+}
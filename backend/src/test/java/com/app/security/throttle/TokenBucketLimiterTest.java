@@ -0,0 +1,93 @@
+package com.app.security.throttle;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketLimiterTest {
+
+    @Test
+    void allowsBurstThenRefillsOneTokenPerPeriod() {
+        var clock = new AtomicLong();
+        var limiter = new TokenBucketLimiter(3, Duration.ofSeconds(1), clock::get);
+
+        assertEquals(0, limiter.tryAcquire("user"));
+        assertEquals(0, limiter.tryAcquire("user"));
+        assertEquals(0, limiter.tryAcquire("user"));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), limiter.tryAcquire("user"));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0, limiter.tryAcquire("user"));
+        assertTrue(limiter.tryAcquire("user") > 0);
+    }
+
+    @Test
+    void releasedTokensAreGrantedAgainUpToTheBurst() {
+        var clock = new AtomicLong();
+        var limiter = new TokenBucketLimiter(2, Duration.ofSeconds(1), clock::get);
+
+        assertEquals(0, limiter.tryAcquire("user"));
+        assertEquals(0, limiter.tryAcquire("user"));
+        limiter.release("user");
+        assertEquals(0, limiter.tryAcquire("user"));
+        assertTrue(limiter.tryAcquire("user") > 0);
+
+        limiter.release("user");
+        limiter.release("user");
+        limiter.release("user");
+        assertEquals(0, limiter.tryAcquire("user"));
+        assertEquals(0, limiter.tryAcquire("user"));
+        assertTrue(limiter.tryAcquire("user") > 0);
+    }
+
+    @Test
+    void evictsOnlyFullyRefilledKeys() {
+        var clock = new AtomicLong();
+        var limiter = new TokenBucketLimiter(2, Duration.ofSeconds(1), clock::get);
+
+        limiter.tryAcquire("idle");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        limiter.tryAcquire("active");
+
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void grantsExactlyTheBurstPerKeyUnderContention() throws InterruptedException {
+        var keys = 50_000;
+        var burst = 4;
+        var threads = 8;
+        var limiter = new TokenBucketLimiter(burst, Duration.ofHours(1), () -> 0L);
+        var granted = new LongAdder();
+        var start = new CountDownLatch(1);
+
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < keys; i++) {
+                        if (limiter.tryAcquire("key-" + i) == 0) {
+                            granted.increment();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        assertEquals((long) keys * burst, granted.sum());
+        assertEquals(keys, limiter.size());
+    }
+}
@@ -0,0 +1,128 @@
+package com.app.service.calendar;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WorkingCalendarTest {
+
+    private static final List<DayOfWeek> WEEKEND = List.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+
+    @Test
+    void matchesTheDayByDayLoopWithoutPublicHolidays() {
+        var calendar = new WorkingCalendar(2000, 2100, WEEKEND, null, 8);
+        var random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            var start = LocalDateTime.of(2000, 1, 1, 0, 0)
+                    .plusDays(random.nextInt(365 * 90))
+                    .plusHours(random.nextInt(24));
+            var end = start.plusHours(random.nextInt(24 * 400) + 1);
+            if (ChronoUnit.DAYS.between(start, end) == 0
+                    && (ChronoUnit.HOURS.between(start, end) > 8 || isWeekend(start.toLocalDate()))) {
+                continue;
+            }
+
+            assertEquals(loop(start, end), calendar.hoursBetween(start, end), () -> start + " - " + end);
+        }
+    }
+
+    @Test
+    void excludesPublicHolidaysFromCsvAndIcs() {
+        var csv = resource("holidays.csv", "date,name\n# comment\n2025-12-25,Christmas Day\n2025-12-26\n");
+        var ics = resource("holidays.ics", """
+                BEGIN:VCALENDAR
+                BEGIN:VEVENT
+                DTSTART;VALUE=DATE:20251225
+                END:VEVENT
+                BEGIN:VEVENT
+                DTSTART;VALUE=DATE:20251226
+                END:VEVENT
+                END:VCALENDAR
+                """);
+
+        for (var file : List.of(csv, ics)) {
+            var calendar = new WorkingCalendar(2025, 2026, WEEKEND, file, 8);
+
+            assertEquals(3, calendar.workingDaysBetween(LocalDate.of(2025, 12, 22), LocalDate.of(2025, 12, 29)));
+            assertEquals(0, calendar.hoursBetween(
+                    LocalDateTime.of(2025, 12, 25, 8, 0), LocalDateTime.of(2025, 12, 25, 16, 0)));
+        }
+    }
+
+    @Test
+    void rejectsDatesOutsideTheCalendar() {
+        var calendar = new WorkingCalendar(2025, 2025, WEEKEND, null, 8);
+
+        assertEquals(261, calendar.workingDaysBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2026, 1, 1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> calendar.workingDaysBetween(LocalDate.of(2025, 12, 1), LocalDate.of(2026, 1, 2)));
+    }
+
+    @Test
+    void compiledScheduleMatchesTheDayByDaySum() {
+        var holidays = resource("holidays.csv", "2025-01-01\n2025-05-01\n2025-05-03\n2025-12-25\n2026-01-01\n");
+        var calendar = new WorkingCalendar(2024, 2027, WEEKEND, holidays, 8);
+        var partTime = new WeeklyHours(new int[]{4, 4, 0, 6, 0, 3, 0});
+        var schedule = new CompiledWorkSchedule(
+                List.of(LocalDate.MIN, LocalDate.of(2025, 3, 1)),
+                List.of(calendar.defaultWeeklyHours(), partTime));
+        var random = new Random(7);
+
+        for (int i = 0; i < 5_000; i++) {
+            var from = LocalDate.of(2024, 6, 1).plusDays(random.nextInt(500));
+            var to = from.plusDays(random.nextInt(400));
+
+            var expected = 0L;
+            for (var day = from; day.isBefore(to); day = day.plusDays(1)) {
+                var week = day.isBefore(LocalDate.of(2025, 3, 1)) ? calendar.defaultWeeklyHours() : partTime;
+                expected += calendar.isPublicHoliday(day) ? 0 : week.hoursOn(day.getDayOfWeek());
+            }
+
+            assertEquals(expected, schedule.hoursBetween(from, to, calendar), () -> from + " - " + to);
+        }
+    }
+
+    /**
+     * The day by day calculation the calendar replaced.
+     */
+    private static long loop(LocalDateTime startTime, LocalDateTime endTime) {
+        var days = ChronoUnit.DAYS.between(startTime, endTime);
+        if (days == 0) {
+            return ChronoUnit.HOURS.between(startTime, endTime);
+        }
+
+        var weeks = days / 7;
+        var daysWithoutWeekends = weeks * 5;
+        for (var fromDay = startTime.plusDays(weeks * 7); fromDay.isBefore(endTime); fromDay = fromDay.plusDays(1)) {
+            if (!isWeekend(fromDay.toLocalDate())) {
+                daysWithoutWeekends++;
+            }
+        }
+        return daysWithoutWeekends * 8;
+    }
+
+    private static boolean isWeekend(LocalDate date) {
+        return WEEKEND.contains(date.getDayOfWeek());
+    }
+
+    private static Resource resource(String filename, String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+        };
+    }
+}
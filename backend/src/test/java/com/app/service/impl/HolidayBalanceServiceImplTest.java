@@ -0,0 +1,62 @@
+package com.app.service.impl;
+
+import com.app.controller.dto.user.HolidayBalanceChangedDto;
+import com.app.persistence.Repository.HolidayBalanceLedgerRepository;
+import com.app.persistence.Repository.HolidayBalanceSnapshotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HolidayBalanceServiceImplTest {
+
+    private static final Long USER_ID = 7L;
+
+    private final HolidayBalanceLedgerRepository ledgerRepository = mock(HolidayBalanceLedgerRepository.class);
+    private final HolidayBalanceSnapshotRepository snapshotRepository = mock(HolidayBalanceSnapshotRepository.class);
+    private final HolidayBalanceServiceImpl service = new HolidayBalanceServiceImpl(
+            ledgerRepository, snapshotRepository, mock(ApplicationEventPublisher.class), new SimpleMeterRegistry(), 0);
+
+    HolidayBalanceServiceImplTest() {
+        when(snapshotRepository.findFirstByUserIdAndTakenAtLessThanEqualOrderByTakenAtDesc(eq(USER_ID), any()))
+                .thenReturn(Optional.empty());
+    }
+
+    @Test
+    void cachesTheBalanceUntilAChangeCommits() {
+        when(ledgerRepository.sumDeltasAfterSnapshot(eq(USER_ID), any(), any())).thenReturn(160L, 152L);
+
+        assertEquals(160, service.balance(USER_ID));
+        assertEquals(160, service.balance(USER_ID));
+        service.evict(new HolidayBalanceChangedDto(USER_ID));
+        assertEquals(152, service.balance(USER_ID));
+
+        verify(ledgerRepository, times(2)).sumDeltasAfterSnapshot(eq(USER_ID), any(), any());
+    }
+
+    @Test
+    void doesNotCacheABalanceReadWhileAChangeCommitted() {
+        when(ledgerRepository.sumDeltasAfterSnapshot(eq(USER_ID), any(), any()))
+                .thenAnswer(invocation -> {
+                    // The change commits and evicts while the old balance is still being read
+                    service.evict(new HolidayBalanceChangedDto(USER_ID));
+                    return 160L;
+                })
+                .thenReturn(152L);
+
+        assertEquals(160, service.balance(USER_ID));
+        assertEquals(152, service.balance(USER_ID));
+        assertEquals(152, service.balance(USER_ID));
+
+        verify(ledgerRepository, times(2)).sumDeltasAfterSnapshot(eq(USER_ID), any(), any());
+    }
+}
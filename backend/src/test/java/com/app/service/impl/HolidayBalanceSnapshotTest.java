@@ -0,0 +1,74 @@
+package com.app.service.impl;
+
+import com.app.model.LedgerReason;
+import com.app.persistence.Repository.HolidayBalanceLedgerRepository;
+import com.app.persistence.Repository.HolidayBalanceSnapshotRepository;
+import com.app.persistence.entity.HolidayBalanceLedgerEntity;
+import com.app.persistence.entity.HolidayBalanceSnapshotEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:holidays;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "tokens.keys.keystore-path=${java.io.tmpdir}/holiday-manager-test/tokens.p12",
+        "tokens.keys.keystore-password=test",
+        "tokens.keys.generate-if-missing=true"
+})
+class HolidayBalanceSnapshotTest {
+
+    private static final Long USER_ID = 1_000_017L;
+
+    @Autowired
+    private HolidayBalanceServiceImpl holidayBalanceService;
+
+    @Autowired
+    private HolidayBalanceLedgerRepository holidayBalanceLedgerRepository;
+
+    @Autowired
+    private HolidayBalanceSnapshotRepository holidayBalanceSnapshotRepository;
+
+    @Test
+    void entriesCommittedAfterTheSnapshotOfTheirTimeAreIncludedInTheNextOne() {
+        var now = LocalDateTime.now();
+        record(40, now.minusHours(2));
+        holidayBalanceService.takeSnapshots();
+        assertEquals(40, latestSnapshot().getBalance());
+
+        // A transaction that recorded its change an hour ago commits only now, after the snapshot of that time
+        record(-8, now.minusHours(1));
+
+        assertEquals(32, holidayBalanceService.balanceAsOf(USER_ID, LocalDateTime.now()));
+        assertEquals(40, holidayBalanceService.balanceAsOf(USER_ID, now.minusMinutes(90)));
+
+        holidayBalanceService.takeSnapshots();
+
+        assertEquals(32, latestSnapshot().getBalance());
+        assertEquals(32, holidayBalanceService.balanceAsOf(USER_ID, LocalDateTime.now()));
+        assertEquals(40, holidayBalanceService.balanceAsOf(USER_ID, now.minusMinutes(90)));
+    }
+
+    private void record(long delta, LocalDateTime createdAt) {
+        holidayBalanceLedgerRepository.save(HolidayBalanceLedgerEntity.builder()
+                .userId(USER_ID)
+                .delta(delta)
+                .reason(LedgerReason.ADJUSTMENT)
+                .createdAt(createdAt)
+                .build());
+    }
+
+    private HolidayBalanceSnapshotEntity latestSnapshot() {
+        return holidayBalanceSnapshotRepository.findLatestByUserIds(List.of(USER_ID)).getFirst();
+    }
+}
@@ -0,0 +1,108 @@
+package com.app.service.impl;
+
+import com.app.controller.dto.holiday.HolidaySpecificationDto;
+import com.app.model.Role;
+import com.app.model.Status;
+import com.app.persistence.Repository.HolidayRepository;
+import com.app.persistence.Repository.UserRepository;
+import com.app.persistence.entity.HolidayEntity;
+import com.app.persistence.entity.UserEntity;
+import com.app.service.HolidayService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:holidays;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "tokens.keys.keystore-path=${java.io.tmpdir}/holiday-manager-test/tokens.p12",
+        "tokens.keys.keystore-password=test",
+        "tokens.keys.generate-if-missing=true"
+})
+class HolidayListingQueryTest {
+
+    @Autowired
+    private HolidayService holidayService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HolidayRepository holidayRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void aPageOfHolidaysIsOneStatementAndLoadsNoUsers() {
+        var user = userRepository.save(UserEntity.builder()
+                .name("Ewa")
+                .surname("Lis")
+                .username("ewa")
+                .email("ewa@example.com")
+                .password("secret")
+                .age(35)
+                .role(Role.ROLE_WORKER)
+                .enable(true)
+                .holidaysHours(160L)
+                .build());
+        var start = LocalDateTime.of(2041, 3, 4, 8, 0);
+        for (int day = 0; day < 3; day++) {
+            holidayRepository.save(HolidayEntity.builder()
+                    .startDate(start.plusDays(day))
+                    .endDate(start.plusDays(day).plusHours(8))
+                    .status(Status.PROCESSING)
+                    .hours(8L)
+                    .userEntity(user)
+                    .build());
+        }
+
+        statistics.clear();
+        var page = holidayService.getHolidays(
+                new HolidaySpecificationDto(null, user.getId(), null, null, null, null, 2, false));
+
+        assertEquals(2, page.items().size());
+        assertEquals(user.getId(), page.items().getFirst().userId());
+        assertNotNull(page.nextCursor());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        statistics.clear();
+        var next = holidayService.getHolidays(
+                new HolidaySpecificationDto(null, user.getId(), null, null, null, page.nextCursor(), 2, true));
+
+        assertEquals(1, next.items().size());
+        assertEquals(3L, next.total());
+        // The page itself and the requested count
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -0,0 +1,108 @@
+package com.app.service.impl;
+
+import com.app.controller.dto.holiday.CreateHolidayDto;
+import com.app.model.Role;
+import com.app.persistence.Repository.HolidayRepository;
+import com.app.persistence.Repository.UserRepository;
+import com.app.persistence.entity.HolidayEntity;
+import com.app.persistence.entity.UserEntity;
+import com.app.service.HolidayBalanceService;
+import com.app.service.HolidayService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:holidays;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "tokens.keys.keystore-path=${java.io.tmpdir}/holiday-manager-test/tokens.p12",
+        "tokens.keys.keystore-password=test",
+        "tokens.keys.generate-if-missing=true"
+})
+class HolidayServiceConcurrencyTest {
+
+    private static final long BALANCE = 160;
+    private static final int DAYS = 60;
+    private static final int REQUESTS_PER_DAY = 4;
+
+    @Autowired
+    private HolidayService holidayService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HolidayRepository holidayRepository;
+
+    @Autowired
+    private HolidayBalanceService holidayBalanceService;
+
+    @Test
+    void parallelCreatesOfOneUserKeepTheBalanceAndNeverOverlap() throws Exception {
+        var userId = userRepository.save(UserEntity.builder()
+                .name("Anna")
+                .surname("Nowak")
+                .username("anna")
+                .email("anna@example.com")
+                .password("secret")
+                .age(30)
+                .role(Role.ROLE_WORKER)
+                .enable(true)
+                .holidaysHours(BALANCE)
+                .build()).getId();
+
+        // Every working day is requested several times, together far more hours than the balance allows
+        var requests = new ArrayList<Callable<Void>>();
+        var start = LocalDateTime.of(2031, 1, 6, 8, 0);
+        for (int day = 0; day < DAYS; day++) {
+            var holiday = new CreateHolidayDto(start.plusDays(day), start.plusDays(day).plusHours(8));
+            for (int i = 0; i < REQUESTS_PER_DAY; i++) {
+                requests.add(() -> {
+                    holidayService.createHoliday(holiday, userId);
+                    return null;
+                });
+            }
+        }
+        Collections.shuffle(requests);
+
+        var rejected = new AtomicInteger();
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            for (var future : executor.invokeAll(requests)) {
+                try {
+                    future.get();
+                } catch (Exception e) {
+                    assertTrue(e.getCause() instanceof IllegalArgumentException, e.getCause().toString());
+                    rejected.incrementAndGet();
+                }
+            }
+        }
+
+        var holidays = holidayRepository.findAll().stream()
+                .filter(holiday -> holiday.getUserEntity().getId().equals(userId))
+                .toList();
+        var taken = holidays.stream().mapToLong(HolidayEntity::getHours).sum();
+        var startDates = holidays.stream().map(HolidayEntity::getStartDate).distinct().count();
+
+        assertEquals(holidays.size(), startDates);
+        assertTrue(taken <= BALANCE);
+        assertEquals(BALANCE - taken, userRepository.findById(userId).orElseThrow().getHolidaysHours());
+        // The opening balance was set on the user directly, so the ledger holds only the charges
+        assertEquals(-taken, holidayBalanceService.balance(userId));
+        assertEquals(requests.size(), holidays.size() + rejected.get());
+    }
+}
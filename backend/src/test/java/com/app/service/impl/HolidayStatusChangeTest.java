@@ -0,0 +1,234 @@
+package com.app.service.impl;
+
+import com.app.controller.dto.BatchItemResultDto;
+import com.app.controller.dto.holiday.BatchStatusChangeDto;
+import com.app.model.LedgerReason;
+import com.app.model.Role;
+import com.app.model.Status;
+import com.app.persistence.Repository.HolidayBalanceLedgerRepository;
+import com.app.persistence.Repository.HolidayRepository;
+import com.app.persistence.Repository.UserRepository;
+import com.app.persistence.entity.HolidayEntity;
+import com.app.persistence.entity.UserEntity;
+import com.app.service.HolidayService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:holidays;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "tokens.keys.keystore-path=${java.io.tmpdir}/holiday-manager-test/tokens.p12",
+        "tokens.keys.keystore-password=test",
+        "tokens.keys.generate-if-missing=true"
+})
+class HolidayStatusChangeTest {
+
+    private static final long BALANCE = 80;
+    private static final long HOURS = 8;
+
+    @Autowired
+    private HolidayService holidayService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HolidayRepository holidayRepository;
+
+    @Autowired
+    private HolidayBalanceLedgerRepository holidayBalanceLedgerRepository;
+
+    @Test
+    void concurrentRejectionsRefundTheHolidayOnce() throws Exception {
+        var user = user();
+        var holidayId = holiday(user, Status.PROCESSING, 0);
+
+        var changes = new ArrayList<Callable<Void>>();
+        for (int i = 0; i < 8; i++) {
+            changes.add(() -> {
+                holidayService.changeStatus(holidayId, Status.REJECTED);
+                return null;
+            });
+        }
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            for (var future : executor.invokeAll(changes)) {
+                future.get();
+            }
+        }
+
+        assertEquals(Status.REJECTED, holidayRepository.findById(holidayId).orElseThrow().getStatus());
+        assertEquals(1, refunds(holidayId));
+        assertEquals(BALANCE + HOURS, userRepository.findById(user.getId()).orElseThrow().getHolidaysHours());
+    }
+
+    @Test
+    void concurrentAcceptsAndRejectionsEndRejectedWithOneRefund() throws Exception {
+        var user = user();
+        var holidayId = holiday(user, Status.PROCESSING, 0);
+
+        var changes = new ArrayList<Callable<Void>>();
+        for (int i = 0; i < 4; i++) {
+            changes.add(() -> {
+                holidayService.changeStatus(holidayId, Status.ACCEPTED);
+                return null;
+            });
+            changes.add(() -> {
+                holidayService.changeStatus(holidayId, Status.REJECTED);
+                return null;
+            });
+        }
+        Collections.shuffle(changes);
+
+        // An accept losing to a rejection is refused, as a rejected holiday cannot be accepted
+        var refused = new AtomicInteger();
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            for (var future : executor.invokeAll(changes)) {
+                try {
+                    future.get();
+                } catch (Exception e) {
+                    assertTrue(e.getCause() instanceof IllegalArgumentException, e.getCause().toString());
+                    refused.incrementAndGet();
+                }
+            }
+        }
+
+        assertTrue(refused.get() <= 4);
+        assertEquals(Status.REJECTED, holidayRepository.findById(holidayId).orElseThrow().getStatus());
+        assertEquals(1, refunds(holidayId));
+        assertEquals(BALANCE + HOURS, userRepository.findById(user.getId()).orElseThrow().getHolidaysHours());
+    }
+
+    @Test
+    void batchReportsMissingAndRefusedHolidaysAndRefundsDuplicatesOnce() {
+        var first = user();
+        var second = user();
+        var processing = holiday(first, Status.PROCESSING, 0);
+        var accepted = holiday(first, Status.ACCEPTED, 1);
+        var rejected = holiday(second, Status.REJECTED, 0);
+        var other = holiday(second, Status.PROCESSING, 1);
+
+        var results = holidayService.changeStatuses(new BatchStatusChangeDto(
+                List.of(processing, Long.MAX_VALUE, processing, accepted, rejected, other), Status.REJECTED));
+
+        assertEquals(List.of(
+                BatchItemResultDto.success(0, processing),
+                BatchItemResultDto.failure(1, "Holiday not found."),
+                BatchItemResultDto.success(2, processing),
+                BatchItemResultDto.success(3, accepted),
+                BatchItemResultDto.success(4, rejected),
+                BatchItemResultDto.success(5, other)), results);
+        assertEquals(1, refunds(processing));
+        assertEquals(1, refunds(accepted));
+        // Already rejected before the batch, so nothing is returned again
+        assertEquals(0, refunds(rejected));
+        assertEquals(1, refunds(other));
+        assertEquals(BALANCE + 2 * HOURS, userRepository.findById(first.getId()).orElseThrow().getHolidaysHours());
+        assertEquals(BALANCE + HOURS, userRepository.findById(second.getId()).orElseThrow().getHolidaysHours());
+
+        var refused = holidayService.changeStatuses(new BatchStatusChangeDto(
+                List.of(processing, Long.MAX_VALUE), Status.ACCEPTED));
+
+        assertEquals(List.of(
+                BatchItemResultDto.failure(0, "Holiday cannot be changed from REJECTED to ACCEPTED."),
+                BatchItemResultDto.failure(1, "Holiday not found.")), refused);
+        assertEquals(Status.REJECTED, holidayRepository.findById(processing).orElseThrow().getStatus());
+        assertEquals(1, refunds(processing));
+    }
+
+    @Test
+    void concurrentBatchesRejectingTheSameHolidaysRefundEachOnce() throws Exception {
+        var user = user();
+        var ids = new ArrayList<Long>();
+        for (int day = 0; day < 4; day++) {
+            ids.add(holiday(user, Status.PROCESSING, day));
+        }
+
+        var batches = new ArrayList<Callable<List<BatchItemResultDto>>>();
+        for (int i = 0; i < 4; i++) {
+            var batch = new ArrayList<>(ids);
+            Collections.shuffle(batch);
+            batches.add(() -> holidayService.changeStatuses(new BatchStatusChangeDto(batch, Status.REJECTED)));
+        }
+        try (var executor = Executors.newFixedThreadPool(4)) {
+            for (var future : executor.invokeAll(batches)) {
+                assertTrue(future.get().stream().allMatch(result -> result.error() == null));
+            }
+        }
+
+        for (var id : ids) {
+            assertEquals(1, refunds(id));
+        }
+        assertEquals(BALANCE + ids.size() * HOURS,
+                userRepository.findById(user.getId()).orElseThrow().getHolidaysHours());
+    }
+
+    /**
+     * Saves a new user with the test balance.
+     *
+     * @return the saved user
+     */
+    private UserEntity user() {
+        var name = UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(UserEntity.builder()
+                .name("Jan")
+                .surname("Kowalski")
+                .username(name)
+                .email(name + "@example.com")
+                .password("secret")
+                .age(40)
+                .role(Role.ROLE_WORKER)
+                .enable(true)
+                .holidaysHours(BALANCE)
+                .build());
+    }
+
+    /**
+     * Saves a holiday of one working day, whose hours have already been charged.
+     *
+     * @param user   the owner of the holiday
+     * @param status the status of the holiday
+     * @param day    the offset of the day from the first day used by the test
+     * @return the ID of the holiday
+     */
+    private Long holiday(UserEntity user, Status status, int day) {
+        var start = LocalDateTime.of(2042, 5, 5, 8, 0).plusDays(day);
+        return holidayRepository.save(HolidayEntity.builder()
+                .startDate(start)
+                .endDate(start.plusHours(HOURS))
+                .status(status)
+                .hours(HOURS)
+                .userEntity(user)
+                .build()).getId();
+    }
+
+    /**
+     * Counts the refunds of a holiday recorded in the ledger.
+     *
+     * @param holidayId the ID of the holiday
+     * @return the number of refund entries
+     */
+    private long refunds(Long holidayId) {
+        return holidayBalanceLedgerRepository.findAll().stream()
+                .filter(entry -> holidayId.equals(entry.getHolidayId()))
+                .filter(entry -> entry.getReason() == LedgerReason.HOLIDAY_REFUNDED)
+                .count();
+    }
+}
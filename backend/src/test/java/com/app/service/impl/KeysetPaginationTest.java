@@ -0,0 +1,129 @@
+package com.app.service.impl;
+
+import com.app.controller.dto.PageDto;
+import com.app.controller.dto.holiday.HolidayDto;
+import com.app.controller.dto.holiday.HolidaySpecificationDto;
+import com.app.controller.dto.user.UserDto;
+import com.app.controller.dto.user.UserSpecificationDto;
+import com.app.model.Role;
+import com.app.model.Status;
+import com.app.persistence.Repository.HolidayRepository;
+import com.app.persistence.Repository.UserRepository;
+import com.app.persistence.entity.HolidayEntity;
+import com.app.persistence.entity.UserEntity;
+import com.app.service.HolidayService;
+import com.app.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:holidays;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "tokens.keys.keystore-path=${java.io.tmpdir}/holiday-manager-test/tokens.p12",
+        "tokens.keys.keystore-password=test",
+        "tokens.keys.generate-if-missing=true"
+})
+class KeysetPaginationTest {
+
+    @Autowired
+    private HolidayService holidayService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HolidayRepository holidayRepository;
+
+    @Test
+    void holidaysStartingAtTheSameTimeArePagedByIdWithoutGapsOrRepeats() {
+        var user = user("Iga", 90);
+        var start = LocalDateTime.of(2043, 9, 1, 8, 0);
+        var expected = new ArrayList<Long>();
+        for (int i = 0; i < 3; i++) {
+            expected.add(holiday(user, start));
+        }
+        expected.add(holiday(user, start.plusDays(1)));
+
+        var ids = readAll(cursor -> holidayService.getHolidays(
+                new HolidaySpecificationDto(null, user.getId(), null, null, null, cursor, 1, false)), HolidayDto::id);
+
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    void usersWithoutANameArePagedFirstAscendingAndLastDescending() {
+        var age = 91;
+        var firstWithout = user(null, age).getId();
+        var secondWithout = user(null, age).getId();
+        var firstAla = user("Ala", age).getId();
+        var secondAla = user("Ala", age).getId();
+        var ola = user("Ola", age).getId();
+
+        var ascending = readAll(cursor -> userService.getUsers(new UserSpecificationDto(
+                null, null, null, null, age, age, null, null, "name", false, cursor, 2, false)), UserDto::id);
+        var descending = readAll(cursor -> userService.getUsers(new UserSpecificationDto(
+                null, null, null, null, age, age, null, null, "name", true, cursor, 2, false)), UserDto::id);
+
+        assertEquals(List.of(firstWithout, secondWithout, firstAla, secondAla, ola), ascending);
+        assertEquals(List.of(ola, secondAla, firstAla, secondWithout, firstWithout), descending);
+    }
+
+    /**
+     * Reads every page, following the cursor of each page.
+     *
+     * @param page reads the page after the given cursor
+     * @param id   the ID of an item
+     * @param <T>  the type of the items
+     * @return the IDs of all items in page order
+     */
+    private static <T> List<Long> readAll(Function<String, PageDto<T>> page, Function<T, Long> id) {
+        var ids = new ArrayList<Long>();
+        String cursor = null;
+        do {
+            var current = page.apply(cursor);
+            current.items().forEach(item -> ids.add(id.apply(item)));
+            cursor = current.nextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private UserEntity user(String name, int age) {
+        return userRepository.save(UserEntity.builder()
+                .name(name)
+                .surname("Keyset")
+                .username("keyset-" + System.nanoTime())
+                .email(null)
+                .password("secret")
+                .age(age)
+                .role(Role.ROLE_WORKER)
+                .enable(true)
+                .holidaysHours(0L)
+                .build());
+    }
+
+    private Long holiday(UserEntity user, LocalDateTime start) {
+        return holidayRepository.save(HolidayEntity.builder()
+                .startDate(start)
+                .endDate(start.plusHours(8))
+                .status(Status.PROCESSING)
+                .hours(8L)
+                .userEntity(user)
+                .build()).getId();
+    }
+}
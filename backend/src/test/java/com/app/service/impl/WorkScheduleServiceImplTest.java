@@ -0,0 +1,92 @@
+package com.app.service.impl;
+
+import com.app.controller.dto.user.WorkScheduleChangedDto;
+import com.app.persistence.Repository.UserRepository;
+import com.app.persistence.Repository.WorkScheduleRepository;
+import com.app.service.calendar.WorkingCalendar;
+import com.app.validate.WorkScheduleDtoValidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WorkScheduleServiceImplTest {
+
+    private static final Long USER_ID = 7L;
+    private static final LocalDateTime START = LocalDateTime.of(2031, 1, 6, 8, 0);
+
+    private final WorkScheduleRepository workScheduleRepository = mock(WorkScheduleRepository.class);
+    private final WorkScheduleServiceImpl service = new WorkScheduleServiceImpl(
+            mock(UserRepository.class),
+            workScheduleRepository,
+            mock(WorkingCalendar.class),
+            mock(WorkScheduleDtoValidator.class),
+            mock(ApplicationEventPublisher.class));
+
+    WorkScheduleServiceImplTest() {
+        ReflectionTestUtils.setField(service, "maxSize", 100);
+        ReflectionTestUtils.setField(service, "timeToLiveMs", 60_000L);
+    }
+
+    @Test
+    void compilesTheScheduleAgainOnlyAfterAChangeCommits() {
+        charge();
+        charge();
+        verify(workScheduleRepository, times(1)).findAllByUserEntityIdOrderByEffectiveFromAsc(USER_ID);
+
+        service.evict(new WorkScheduleChangedDto(USER_ID));
+        charge();
+        verify(workScheduleRepository, times(2)).findAllByUserEntityIdOrderByEffectiveFromAsc(USER_ID);
+    }
+
+    @Test
+    void doesNotCacheAScheduleCompiledWhileAChangeCommitted() {
+        when(workScheduleRepository.findAllByUserEntityIdOrderByEffectiveFromAsc(USER_ID))
+                .thenAnswer(invocation -> {
+                    // The change commits and evicts while the old schedules are still being compiled
+                    service.evict(new WorkScheduleChangedDto(USER_ID));
+                    return List.of();
+                })
+                .thenReturn(List.of());
+
+        charge();
+        charge();
+        charge();
+
+        verify(workScheduleRepository, times(2)).findAllByUserEntityIdOrderByEffectiveFromAsc(USER_ID);
+    }
+
+    @Test
+    void compilesTheScheduleAgainOnceItExpired() {
+        ReflectionTestUtils.setField(service, "timeToLiveMs", 0L);
+
+        charge();
+        charge();
+
+        verify(workScheduleRepository, times(2)).findAllByUserEntityIdOrderByEffectiveFromAsc(USER_ID);
+    }
+
+    @Test
+    void cachesAtMostTheConfiguredNumberOfUsers() {
+        ReflectionTestUtils.setField(service, "maxSize", 1);
+
+        service.hoursBetween(1L, START, START.plusHours(8));
+        service.hoursBetween(2L, START, START.plusHours(8));
+        service.hoursBetween(2L, START, START.plusHours(8));
+        service.hoursBetween(1L, START, START.plusHours(8));
+
+        verify(workScheduleRepository, times(1)).findAllByUserEntityIdOrderByEffectiveFromAsc(1L);
+        verify(workScheduleRepository, times(2)).findAllByUserEntityIdOrderByEffectiveFromAsc(2L);
+    }
+
+    private void charge() {
+        service.hoursBetween(USER_ID, START, START.plusHours(8));
+    }
+}
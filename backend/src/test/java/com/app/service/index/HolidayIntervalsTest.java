@@ -0,0 +1,57 @@
+package com.app.service.index;
+
+import com.app.controller.dto.holiday.HolidayIntervalDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HolidayIntervalsTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    @Test
+    void detectsRangesContainingAnExistingHoliday() {
+        var intervals = new HolidayIntervals(List.of(interval(1, 10, 12)));
+
+        assertTrue(intervals.overlaps(day(5), day(20)));
+        assertTrue(intervals.overlaps(day(11), day(11)));
+        assertTrue(intervals.overlaps(day(12), day(14)));
+        assertFalse(intervals.overlaps(day(13), day(20)));
+        assertFalse(intervals.overlaps(day(1), day(9)));
+    }
+
+    @Test
+    void matchesLinearScanOnRandomRanges() {
+        var random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            var ranges = new ArrayList<HolidayIntervalDto>();
+            var count = random.nextInt(20);
+            for (int i = 0; i < count; i++) {
+                var start = random.nextInt(100);
+                ranges.add(interval(i, start, start + random.nextInt(15)));
+            }
+            var intervals = new HolidayIntervals(ranges);
+
+            var start = random.nextInt(110);
+            var end = start + random.nextInt(15);
+            var expected = ranges.stream().anyMatch(range ->
+                    !range.startDate().isAfter(day(end)) && !range.endDate().isBefore(day(start)));
+            assertEquals(expected, intervals.overlaps(day(start), day(end)), ranges + " " + start + "-" + end);
+        }
+    }
+
+    private static HolidayIntervalDto interval(long id, int startDay, int endDay) {
+        return new HolidayIntervalDto(id, day(startDay), day(endDay));
+    }
+
+    private static LocalDateTime day(int day) {
+        return BASE.plusDays(day);
+    }
+}
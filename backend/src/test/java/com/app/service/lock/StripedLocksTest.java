@@ -0,0 +1,82 @@
+package com.app.service.lock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedLocksTest {
+
+    @Test
+    void roundsStripesUpToPowerOfTwo() {
+        assertEquals(1, new StripedLocks(1).size());
+        assertEquals(4, new StripedLocks(3).size());
+        assertEquals(256, new StripedLocks(256).size());
+        assertEquals(512, new StripedLocks(257).size());
+    }
+
+    @Test
+    void mapsSameKeyToSameLock() {
+        var locks = new StripedLocks(64);
+
+        assertSame(locks.lockFor(42L), locks.lockFor(Long.valueOf(42)));
+    }
+
+    @Test
+    void returnsTheStripesOfSeveralKeysOnceInStripeOrder() {
+        var locks = new StripedLocks(256);
+
+        // 1 and 257 share a stripe, as do 2 and 258
+        assertEquals(List.of(locks.lockFor(1L), locks.lockFor(2L)), locks.locksFor(List.of(2L, 257L)));
+        assertEquals(List.of(locks.lockFor(1L), locks.lockFor(2L)), locks.locksFor(List.of(258L, 1L)));
+    }
+
+    @Test
+    void parallelDebitsOfOneUserNeverOverdraw() throws InterruptedException {
+        var locks = new StripedLocks(16);
+        var balance = new int[]{160};
+        var accepted = new AtomicInteger();
+        var requests = 500;
+        var start = new CountDownLatch(1);
+        var done = new CountDownLatch(requests);
+
+        try (var executor = Executors.newFixedThreadPool(32)) {
+            for (int i = 0; i < requests; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        var lock = locks.lockFor(7L);
+                        lock.lock();
+                        try {
+                            // Check-then-act on the balance, as createHoliday does
+                            if (balance[0] >= 8) {
+                                var read = balance[0];
+                                Thread.yield();
+                                balance[0] = read - 8;
+                                accepted.incrementAndGet();
+                            }
+                        } finally {
+                            lock.unlock();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            start.countDown();
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+        }
+
+        assertEquals(20, accepted.get());
+        assertEquals(0, balance[0]);
+    }
+}
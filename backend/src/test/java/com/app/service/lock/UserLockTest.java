@@ -0,0 +1,128 @@
+package com.app.service.lock;
+
+import com.app.persistence.Repository.UserRepository;
+import com.app.persistence.entity.UserEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserLockTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserLock userLock = new UserLock(userRepository, new SimpleMeterRegistry(), 16, 50);
+
+    UserLockTest() {
+        when(userRepository.findByIdForUpdate(any()))
+                .thenAnswer(invocation -> Optional.of(UserEntity.builder().id(invocation.getArgument(0)).build()));
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {TransactionSynchronization.STATUS_COMMITTED, TransactionSynchronization.STATUS_ROLLED_BACK})
+    void holdsTheUserUntilTheTransactionCompletes(int status) {
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(1L, userLock.lock(1L).getId());
+
+        assertFalse(lockedInAnotherTransaction(1L));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(status));
+        assertTrue(lockedInAnotherTransaction(1L));
+    }
+
+    @Test
+    void batchesOfUsersSharingStripesDoNotDeadlock() {
+        var slowRows = mock(UserRepository.class);
+        when(slowRows.findByIdForUpdate(any())).thenAnswer(invocation -> {
+            // Widens the window between locking the first and the second user of a batch
+            Thread.sleep(5);
+            return Optional.of(UserEntity.builder().id(invocation.getArgument(0)).build());
+        });
+        var stripedLock = new UserLock(slowRows, new SimpleMeterRegistry(), 256, 1_000);
+
+        // With 256 stripes, 1 and 257 share a stripe, as do 2 and 258
+        var first = CompletableFuture.runAsync(() -> lockRepeatedly(stripedLock, List.of(2L, 257L)));
+        var second = CompletableFuture.runAsync(() -> lockRepeatedly(stripedLock, List.of(1L, 258L)));
+
+        CompletableFuture.allOf(first, second).join();
+    }
+
+    @Test
+    void leavesOutUsersThatDoNotExist() {
+        when(userRepository.findByIdForUpdate(3L)).thenReturn(Optional.empty());
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertEquals(List.of(1L, 2L), List.copyOf(userLock.lockAll(List.of(3L, 2L, 1L)).keySet()));
+    }
+
+    @Test
+    void requiresATransaction() {
+        assertThrows(IllegalStateException.class, () -> userLock.lock(1L));
+    }
+
+    /**
+     * Locks the users together many times, each time in its own simulated transaction.
+     *
+     * @param userLock the lock
+     * @param userIds  the IDs of the users
+     */
+    private static void lockRepeatedly(UserLock userLock, List<Long> userIds) {
+        for (int i = 0; i < 50; i++) {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                assertEquals(2, userLock.lockAll(userIds).size());
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(synchronization ->
+                                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+    }
+
+    /**
+     * Tries to lock the user from another thread inside its own simulated transaction.
+     *
+     * @param userId the ID of the user
+     * @return {@code true} if the lock was acquired before the timeout
+     */
+    private boolean lockedInAnotherTransaction(Long userId) {
+        return CompletableFuture.supplyAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                userLock.lock(userId);
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(synchronization ->
+                                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+                return true;
+            } catch (CannotAcquireLockException e) {
+                return false;
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }).join();
+    }
+}